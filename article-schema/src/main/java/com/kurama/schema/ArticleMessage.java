@@ -1,10 +1,18 @@
-package com.kurama.notification.dto;
+package com.kurama.schema;
 
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.UUID;
+
+/**
+ * A {@code NEW_ARTICLES} record. Mirrors the latest schema under {@code schemas/article}; add a field here only
+ * together with a new schema version.
+ */
 @Data
+@Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class ArticleMessage {
@@ -13,9 +21,9 @@ public class ArticleMessage {
     private String link;
     private String description;
     private String author;
+    // Epoch milliseconds
     private Long publishDate;
     private String content;
     private String category;
-    private String feedId;
+    private UUID feedId;
 }
-
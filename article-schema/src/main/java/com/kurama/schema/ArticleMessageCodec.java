@@ -0,0 +1,159 @@
+package com.kurama.schema;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Avro binary encoding of {@link ArticleMessage}.
+ * <p>
+ * Wire format: one magic byte ({@code 0}), the 4-byte big-endian schema id from {@link ArticleSchemaRegistry}, then
+ * the Avro body. The same framing as Confluent's serializers, so a real registry can replace the file-based one
+ * without touching stored data. Encoding always uses the latest schema; decoding resolves the writer's schema
+ * against the latest one, so consumers can read records written by older producers. A record from a newer producer,
+ * with an id this side does not know yet, is read with the latest local schema and its appended fields are dropped.
+ * <p>
+ * Records written before the topic moved to Avro are plain JSON objects, as Spring's {@code JsonSerializer} wrote
+ * them, and are still decoded until they have aged out of the topic.
+ */
+public class ArticleMessageCodec {
+
+    static final byte MAGIC = 0;
+    private static final int HEADER_SIZE = 5;
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final ArticleSchemaRegistry registry;
+    private final Schema schema;
+    private final int schemaId;
+    private final GenericDatumWriter<GenericRecord> writer;
+    private final Map<Integer, GenericDatumReader<GenericRecord>> readers = new ConcurrentHashMap<>();
+
+    public ArticleMessageCodec() {
+        this(ArticleSchemaRegistry.articles());
+    }
+
+    public ArticleMessageCodec(ArticleSchemaRegistry registry) {
+        this.registry = registry;
+        this.schema = registry.latest();
+        this.schemaId = registry.latestId();
+        this.writer = new GenericDatumWriter<>(schema);
+    }
+
+    public byte[] encode(ArticleMessage message) {
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("guid", message.getGuid());
+        record.put("title", message.getTitle());
+        record.put("link", message.getLink());
+        record.put("description", message.getDescription());
+        record.put("author", message.getAuthor());
+        record.put("publishDate", message.getPublishDate());
+        record.put("content", message.getContent());
+        record.put("category", message.getCategory());
+        record.put("feedId", message.getFeedId() != null ? message.getFeedId().toString() : null);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        out.write(MAGIC);
+        out.write(schemaId >>> 24);
+        out.write(schemaId >>> 16);
+        out.write(schemaId >>> 8);
+        out.write(schemaId);
+        try {
+            BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+            writer.write(record, encoder);
+            encoder.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public ArticleMessage decode(byte[] data) {
+        if (data.length > 0 && data[0] == '{') {
+            return decodeLegacyJson(data);
+        }
+        if (data.length < HEADER_SIZE || data[0] != MAGIC) {
+            throw new IllegalArgumentException("Not an Avro-framed article message");
+        }
+        int writerId = ByteBuffer.wrap(data, 1, 4).getInt();
+        // Reading a newer record with the latest local schema stops before the fields that version appended
+        GenericDatumReader<GenericRecord> reader = readers.computeIfAbsent(writerId, id -> registry.contains(id)
+                ? new GenericDatumReader<>(registry.byId(id), schema)
+                : new GenericDatumReader<>(schema));
+        GenericRecord record;
+        try {
+            BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(data, HEADER_SIZE, data.length - HEADER_SIZE, null);
+            record = reader.read(null, decoder);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        String feedId = string(record, "feedId");
+        return ArticleMessage.builder()
+                .guid(string(record, "guid"))
+                .title(string(record, "title"))
+                .link(string(record, "link"))
+                .description(string(record, "description"))
+                .author(string(record, "author"))
+                .publishDate((Long) record.get("publishDate"))
+                .content(string(record, "content"))
+                .category(string(record, "category"))
+                .feedId(feedId != null ? UUID.fromString(feedId) : null)
+                .build();
+    }
+
+    private static ArticleMessage decodeLegacyJson(byte[] data) {
+        JsonNode json;
+        try {
+            json = JSON.readTree(data);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Not a JSON article message", e);
+        }
+        if (!json.isObject() || !json.path("guid").isTextual()) {
+            throw new IllegalArgumentException("JSON article message without a guid");
+        }
+        String feedId = text(json, "feedId");
+        // ArticleDto.publishDate was a Date, written as epoch milliseconds
+        JsonNode publishDate = json.path("publishDate");
+        return ArticleMessage.builder()
+                .guid(text(json, "guid"))
+                .title(text(json, "title"))
+                .link(text(json, "link"))
+                .description(text(json, "description"))
+                .author(text(json, "author"))
+                .publishDate(publishDate.isNull() || publishDate.isMissingNode()
+                        ? null
+                        : JSON.convertValue(publishDate, Date.class).getTime())
+                .content(text(json, "content"))
+                .category(text(json, "category"))
+                .feedId(feedId != null ? UUID.fromString(feedId) : null)
+                .build();
+    }
+
+    private static String text(JsonNode json, String field) {
+        JsonNode value = json.get(field);
+        return value != null && !value.isNull() ? value.asText() : null;
+    }
+
+    // Avro decodes strings as Utf8
+    private static String string(GenericRecord record, String field) {
+        Object value = record.get(field);
+        return value != null ? value.toString() : null;
+    }
+}
@@ -0,0 +1,24 @@
+package com.kurama.schema;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Kafka value deserializer for {@code NEW_ARTICLES}; see {@link ArticleMessageCodec} for the wire format.
+ */
+public class ArticleMessageDeserializer implements Deserializer<ArticleMessage> {
+
+    private final ArticleMessageCodec codec = new ArticleMessageCodec();
+
+    @Override
+    public ArticleMessage deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return codec.decode(data);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Cannot decode article message from " + topic, e);
+        }
+    }
+}
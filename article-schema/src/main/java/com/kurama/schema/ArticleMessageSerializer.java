@@ -0,0 +1,16 @@
+package com.kurama.schema;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka value serializer for {@code NEW_ARTICLES}; see {@link ArticleMessageCodec} for the wire format.
+ */
+public class ArticleMessageSerializer implements Serializer<ArticleMessage> {
+
+    private final ArticleMessageCodec codec = new ArticleMessageCodec();
+
+    @Override
+    public byte[] serialize(String topic, ArticleMessage message) {
+        return message != null ? codec.encode(message) : null;
+    }
+}
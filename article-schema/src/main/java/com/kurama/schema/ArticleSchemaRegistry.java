@@ -0,0 +1,126 @@
+package com.kurama.schema;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaCompatibility;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * File-based stand-in for a schema registry. Schemas live on the classpath next to an {@code index} file that maps
+ * each wire id to a schema file. Ids are stable: a new version is appended with the next id and must be able to read
+ * data written with every earlier version, which is checked when the registry is loaded.
+ * <p>
+ * A new version may only append optional fields. Then a consumer that does not know the new id yet can still read
+ * the record with its own latest schema and drop the trailing fields, so producers and consumers can be deployed in
+ * either order. This is checked on load as well.
+ */
+public final class ArticleSchemaRegistry {
+
+    public static final String ARTICLE_SCHEMAS = "schemas/article";
+
+    private static final ArticleSchemaRegistry ARTICLES = load(ARTICLE_SCHEMAS);
+
+    private final Map<Integer, Schema> schemas;
+    private final int latestId;
+
+    private ArticleSchemaRegistry(TreeMap<Integer, Schema> schemas) {
+        this.schemas = Map.copyOf(schemas);
+        this.latestId = schemas.lastKey();
+    }
+
+    public static ArticleSchemaRegistry articles() {
+        return ARTICLES;
+    }
+
+    public static ArticleSchemaRegistry load(String directory) {
+        TreeMap<Integer, Schema> schemas = new TreeMap<>();
+        try (BufferedReader index = new BufferedReader(new InputStreamReader(open(directory + "/index"), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = index.readLine()) != null) {
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] entry = line.split("\\s+");
+                try (InputStream schema = open(directory + "/" + entry[1])) {
+                    schemas.put(Integer.parseInt(entry[0]), new Schema.Parser().parse(schema));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read schemas from " + directory, e);
+        }
+        if (schemas.isEmpty()) {
+            throw new IllegalStateException("No schemas listed in " + directory + "/index");
+        }
+
+        Schema latest = schemas.lastEntry().getValue();
+        Schema previous = null;
+        for (Map.Entry<Integer, Schema> entry : schemas.entrySet()) {
+            if (previous != null && !appendsFields(previous, entry.getValue())) {
+                throw new IllegalStateException("Schema id " + entry.getKey() + " in " + directory
+                        + " must keep the fields of the previous version in order and only append new ones");
+            }
+            previous = entry.getValue();
+        }
+        schemas.forEach((id, writer) -> {
+            SchemaCompatibility.SchemaPairCompatibility compatibility =
+                    SchemaCompatibility.checkReaderWriterCompatibility(latest, writer);
+            if (compatibility.getType() != SchemaCompatibility.SchemaCompatibilityType.COMPATIBLE) {
+                throw new IllegalStateException("Latest schema in " + directory + " cannot read schema id " + id
+                        + ": " + compatibility.getDescription());
+            }
+        });
+        return new ArticleSchemaRegistry(schemas);
+    }
+
+    public boolean contains(int id) {
+        return schemas.containsKey(id);
+    }
+
+    public Schema byId(int id) {
+        Schema schema = schemas.get(id);
+        if (schema == null) {
+            throw new IllegalArgumentException("Unknown schema id " + id);
+        }
+        return schema;
+    }
+
+    public int latestId() {
+        return latestId;
+    }
+
+    public Schema latest() {
+        return schemas.get(latestId);
+    }
+
+    private static boolean appendsFields(Schema previous, Schema next) {
+        List<Schema.Field> before = previous.getFields();
+        List<Schema.Field> after = next.getFields();
+        if (after.size() < before.size()) {
+            return false;
+        }
+        for (int i = 0; i < before.size(); i++) {
+            if (!before.get(i).name().equals(after.get(i).name())
+                    || !before.get(i).schema().equals(after.get(i).schema())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static InputStream open(String resource) throws IOException {
+        InputStream in = ArticleSchemaRegistry.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            throw new IOException("Missing classpath resource " + resource);
+        }
+        return in;
+    }
+}
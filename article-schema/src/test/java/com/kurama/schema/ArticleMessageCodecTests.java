@@ -0,0 +1,89 @@
+package com.kurama.schema;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArticleMessageCodecTests {
+
+    private final ArticleMessageCodec codec = new ArticleMessageCodec();
+
+    @Test
+    void roundTripsEveryField() {
+        ArticleMessage message = ArticleMessage.builder()
+                .guid("guid-1")
+                .title("Crème brûlée")
+                .link("http://example.com/1")
+                .description("Description")
+                .author("Alice")
+                .publishDate(1_759_744_800_000L)
+                .content("<p>Full text</p>")
+                .category("Food")
+                .feedId(UUID.randomUUID())
+                .build();
+
+        assertThat(codec.decode(codec.encode(message))).isEqualTo(message);
+    }
+
+    @Test
+    void keepsMissingOptionalFieldsNull() {
+        ArticleMessage message = ArticleMessage.builder().guid("guid-2").build();
+
+        assertThat(codec.decode(codec.encode(message))).isEqualTo(message);
+    }
+
+    @Test
+    void readsRecordsWrittenWithAnOlderSchema() {
+        ArticleMessage message = ArticleMessage.builder().guid("guid-3").title("Old").publishDate(1L).build();
+        byte[] v1 = codec.encode(message);
+
+        ArticleMessageCodec evolved = new ArticleMessageCodec(ArticleSchemaRegistry.load("schemas/article-evolution"));
+
+        assertThat(evolved.decode(v1)).isEqualTo(message);
+    }
+
+    @Test
+    void readsRecordsWrittenWithASchemaItDoesNotKnowYet() {
+        ArticleMessage message = ArticleMessage.builder().guid("guid-4").title("New").category("Tech").build();
+        byte[] v2 = new ArticleMessageCodec(ArticleSchemaRegistry.load("schemas/article-evolution")).encode(message);
+
+        assertThat(codec.decode(v2)).isEqualTo(message);
+    }
+
+    @Test
+    void rejectsAVersionThatDoesNotOnlyAppendFields() {
+        assertThatThrownBy(() -> ArticleSchemaRegistry.load("schemas/article-inserted-field"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("only append");
+    }
+
+    @Test
+    void readsJsonRecordsWrittenBeforeAvro() {
+        UUID feedId = UUID.randomUUID();
+        String json = """
+                {"guid":"guid-5","title":"Legacy","link":"http://example.com/5","description":null,"author":"Bob",\
+                "publishDate":1759744800000,"content":"<p>Text</p>","category":null,"feedId":"%s"}""".formatted(feedId);
+
+        assertThat(codec.decode(json.getBytes(StandardCharsets.UTF_8))).isEqualTo(ArticleMessage.builder()
+                .guid("guid-5")
+                .title("Legacy")
+                .link("http://example.com/5")
+                .author("Bob")
+                .publishDate(1_759_744_800_000L)
+                .content("<p>Text</p>")
+                .feedId(feedId)
+                .build());
+    }
+
+    @Test
+    void rejectsUnframedData() {
+        assertThatThrownBy(() -> codec.decode("guid-6".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> codec.decode("{\"title\":\"No guid\"}".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
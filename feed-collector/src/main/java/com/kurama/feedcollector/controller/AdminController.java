@@ -0,0 +1,30 @@
+package com.kurama.feedcollector.controller;
+
+import com.kurama.feedcollector.dto.CommonResponseEntity;
+import com.kurama.feedcollector.dto.FeedHealth;
+import com.kurama.feedcollector.service.FeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final FeedService feedService;
+
+    /**
+     * Feeds that keep failing, with their last error and when they are polled again.
+     */
+    @GetMapping("/feeds/unhealthy")
+    public CommonResponseEntity<List<FeedHealth>> getUnhealthyFeeds(
+            @RequestParam(name = "limit", defaultValue = "100") int limit
+    ) {
+        List<FeedHealth> feeds = feedService.getUnhealthy(Math.max(1, Math.min(limit, MAX_LIMIT)));
+        return new CommonResponseEntity<List<FeedHealth>>().success(200, feeds, "Success");
+    }
+}
@@ -0,0 +1,33 @@
+package com.kurama.feedcollector.controller;
+
+import com.kurama.feedcollector.dto.ArticleDto;
+import com.kurama.feedcollector.dto.CommonResponseEntity;
+import com.kurama.feedcollector.service.ArticleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/articles")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RequiredArgsConstructor
+public class ArticleController {
+
+    private final ArticleService articleService;
+
+    /**
+     * The full article, including description and content; list endpoints only return headline fields.
+     * GUIDs are often URLs, so everything after {@code /articles/} is taken as the GUID. Clients must
+     * percent-encode {@code ?}, {@code #} and {@code %} in it (WordPress GUIDs look like {@code /?p=123}); left as
+     * they are, they start the query or fragment and the lookup misses.
+     */
+    @GetMapping("/{*guid}")
+    public ResponseEntity<CommonResponseEntity<ArticleDto>> getArticle(@PathVariable String guid) {
+        if (guid.length() <= 1) {
+            return ResponseEntity.notFound().build();
+        }
+        return articleService.getArticle(guid.substring(1))
+                .map(article -> ResponseEntity.ok(new CommonResponseEntity<ArticleDto>().success(200, article, "Success")))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -1,20 +1,34 @@
 package com.kurama.feedcollector.controller;
 
-import com.kurama.feedcollector.dto.ArticleDto;
+import com.kurama.feedcollector.dto.ArticleSummary;
 import com.kurama.feedcollector.dto.CommonResponseEntity;
 import com.kurama.feedcollector.dto.CreateFeedRequest;
+import com.kurama.feedcollector.dto.CursorPage;
 import com.kurama.feedcollector.dto.PagedResponse;
 import com.kurama.feedcollector.entity.Feed;
 import com.kurama.feedcollector.service.ArticleService;
 import com.kurama.feedcollector.service.FeedService;
-import com.kurama.feedcollector.service.PollFeedService;
+import com.kurama.feedcollector.service.PollJob;
+import com.kurama.feedcollector.service.PollJobService;
+import com.kurama.feedcollector.service.cache.FeedReadCache;
+import com.kurama.feedcollector.service.exception.BadRequestException;
 import com.kurama.feedcollector.service.exception.DuplicateFeedException;
+import com.kurama.feedcollector.service.exception.RateLimitedException;
+import com.kurama.feedcollector.service.live.ArticleStreamHub;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 
@@ -26,7 +40,16 @@ public class FeedController {
 
     private final FeedService service;
     private final ArticleService articleService;
-    private final PollFeedService pollFeedService;
+    private final PollJobService pollJobService;
+    private final FeedReadCache readCache;
+    private final ArticleStreamHub streamHub;
+
+    // How long clients may reuse a cached list before revalidating with If-None-Match
+    @Value("${feed.cache.http-max-age:10s}")
+    private Duration httpMaxAge;
+
+    @Value("${feed.articles.scroll-size:8}")
+    private int scrollSize;
 
     @PostMapping
     public ResponseEntity<?> create(@RequestBody CreateFeedRequest request) {
@@ -40,26 +63,115 @@ public class FeedController {
         }
     }
 
+    // Cached reads carry an ETag; a matching If-None-Match is answered with 304 and no body
     @GetMapping()
-    public CommonResponseEntity<List<Feed>> getAllFeeds() {
-        List<Feed> result = service.getAll();
-        return new CommonResponseEntity<List<Feed>>().success(200, result, "Success");
+    public ResponseEntity<CommonResponseEntity<List<Feed>>> getAllFeeds() {
+        FeedReadCache.Cached<List<Feed>> result = readCache.feeds(service::getAll);
+        return cacheable(result.etag())
+                .body(new CommonResponseEntity<List<Feed>>().success(200, result.body(), "Success"));
     }
 
     @GetMapping("/{feedId}/articles")
-    public CommonResponseEntity<PagedResponse<ArticleDto>> getArticlesByFeedId(
+    public ResponseEntity<CommonResponseEntity<PagedResponse<ArticleSummary>>> getArticlesByFeedId(
             @PathVariable UUID feedId,
             @RequestParam(name = "page", required = false, defaultValue = "0") Integer page
     ) {
         int pageNumber = page != null && page >= 0 ? page : 0;
         int size = 8; // fixed page size as requested
-        PagedResponse<ArticleDto> paged = articleService.getArticlesByFeedId(feedId, pageNumber, size);
-        return new CommonResponseEntity<PagedResponse<ArticleDto>>().success(200, paged, "Success");
+        FeedReadCache.Cached<PagedResponse<ArticleSummary>> paged = readCache.articlePage(feedId, pageNumber, size,
+                () -> articleService.getArticlesByFeedId(feedId, pageNumber, size));
+        return cacheable(paged.etag())
+                .body(new CommonResponseEntity<PagedResponse<ArticleSummary>>().success(200, paged.body(), "Success"));
+    }
+
+    /**
+     * Cursor-paginated variant of {@link #getArticlesByFeedId}: pass the returned {@code nextCursor} to get the next
+     * page. Add {@code withTotal=true} for an approximate article count.
+     */
+    @GetMapping("/{feedId}/articles/scroll")
+    public ResponseEntity<?> scrollArticlesByFeedId(
+            @PathVariable UUID feedId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", required = false) Integer size,
+            @RequestParam(name = "withTotal", defaultValue = "false") boolean withTotal
+    ) {
+        int pageSize = size != null ? size : scrollSize;
+        try {
+            if ((cursor == null || cursor.isBlank()) && !withTotal) {
+                FeedReadCache.Cached<CursorPage<ArticleSummary>> first = readCache.firstScrollPage(feedId, pageSize,
+                        () -> articleService.scrollArticlesByFeedId(feedId, null, pageSize, false));
+                return cacheable(first.etag())
+                        .body(new CommonResponseEntity<CursorPage<ArticleSummary>>().success(200, first.body(), "Success"));
+            }
+            CursorPage<ArticleSummary> page = articleService.scrollArticlesByFeedId(feedId, cursor, pageSize, withTotal);
+            return ResponseEntity.ok(new CommonResponseEntity<CursorPage<ArticleSummary>>().success(200, page, "Success"));
+        } catch (BadRequestException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Server-Sent Events stream of the feed's articles as they are stored, one {@code article} event with an
+     * {@link com.kurama.feedcollector.dto.ArticleDto} per article. Clients that fall behind are disconnected and
+     * should reconnect and catch up with the list endpoints.
+     */
+    @GetMapping(path = "/{feedId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamArticles(@PathVariable UUID feedId) {
+        return streamHub.subscribe(feedId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many open streams"));
+    }
+
+    private ResponseEntity.BodyBuilder cacheable(String etag) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(httpMaxAge).mustRevalidate());
     }
 
+    /**
+     * Polls every feed now. Answers 202 with the poll job to follow at {@code /poll-jobs/{jobId}}; while a sweep
+     * runs, further triggers return that sweep's job.
+     */
     @PostMapping("/check-new")
-    public CommonResponseEntity<String> checkNewArticles() {
-//        pollFeedService.checkNewArticles();
-        return new CommonResponseEntity<String>().success(200, "Triggered", "Check started");
+    public ResponseEntity<?> checkNewArticles(HttpServletRequest request) {
+        try {
+            return accepted(pollJobService.triggerAll(request.getRemoteAddr()));
+        } catch (RateLimitedException e) {
+            return tooManyRequests(e);
+        }
+    }
+
+    /**
+     * Polls one feed now, without touching any other feed. Triggers while the feed is being polled return the
+     * running job.
+     */
+    @PostMapping("/{feedId}/check-new")
+    public ResponseEntity<?> checkNewArticles(@PathVariable UUID feedId, HttpServletRequest request) {
+        try {
+            return pollJobService.triggerFeed(request.getRemoteAddr(), feedId)
+                    .<ResponseEntity<?>>map(this::accepted)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (RateLimitedException e) {
+            return tooManyRequests(e);
+        }
+    }
+
+    @GetMapping("/poll-jobs/{jobId}")
+    public ResponseEntity<CommonResponseEntity<PollJob>> getPollJob(@PathVariable UUID jobId) {
+        return pollJobService.getJob(jobId)
+                .map(job -> ResponseEntity.ok(new CommonResponseEntity<PollJob>().success(200, job, "Success")))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<CommonResponseEntity<PollJob>> accepted(PollJob job) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/feed/poll-jobs/" + job.getId()))
+                .body(new CommonResponseEntity<PollJob>().success(202, job, "Poll job accepted"));
+    }
+
+    private static ResponseEntity<String> tooManyRequests(RateLimitedException e) {
+        long seconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body(e.getMessage());
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.kurama.feedcollector.controller;
+
+import com.kurama.feedcollector.dto.ArticleSummary;
+import com.kurama.feedcollector.dto.CommonResponseEntity;
+import com.kurama.feedcollector.dto.CursorPage;
+import com.kurama.feedcollector.dto.TimelineRequest;
+import com.kurama.feedcollector.service.TimelineService;
+import com.kurama.feedcollector.service.exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Newest articles of several feeds as one stream, newest first. Pass the returned {@code nextCursor} to get the next
+ * page. Large feed sets can be sent in a POST body instead of the query string.
+ */
+@RestController
+@RequestMapping("/api/v1/timeline")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RequiredArgsConstructor
+public class TimelineController {
+
+    private final TimelineService timelineService;
+
+    @Value("${feed.articles.scroll-size:8}")
+    private int scrollSize;
+
+    @GetMapping
+    public ResponseEntity<?> getTimeline(
+            @RequestParam(name = "feedIds") List<UUID> feedIds,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", required = false) Integer size
+    ) {
+        return timeline(feedIds, cursor, size);
+    }
+
+    @PostMapping
+    public ResponseEntity<?> postTimeline(@RequestBody TimelineRequest request) {
+        return timeline(request.getFeedIds(), request.getCursor(), request.getSize());
+    }
+
+    private ResponseEntity<?> timeline(List<UUID> feedIds, String cursor, Integer size) {
+        try {
+            CursorPage<ArticleSummary> page = timelineService.timeline(feedIds, cursor, size != null ? size : scrollSize);
+            return ResponseEntity.ok(new CommonResponseEntity<CursorPage<ArticleSummary>>().success(200, page, "Success"));
+        } catch (BadRequestException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.kurama.feedcollector.dto;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * The headline fields of an article, as shown in article lists. Selected directly by the list queries, so the
+ * {@code description} and {@code content} columns are never read for a list page; {@link ArticleDto} carries the
+ * full article.
+ */
+public record ArticleSummary(
+        String guid,
+        String title,
+        String link,
+        String author,
+        Date publishDate,
+        String category,
+        UUID feedId
+) {
+}
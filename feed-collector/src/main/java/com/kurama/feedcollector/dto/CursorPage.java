@@ -0,0 +1,24 @@
+package com.kurama.feedcollector.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list. Pass {@code nextCursor} back to get the following page; it is null on the
+ * last page. {@code approximateTotal} is only filled when requested and may lag behind by a short while.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private int size;
+    private String nextCursor;
+    private boolean hasNext;
+    private Long approximateTotal;
+}
@@ -0,0 +1,23 @@
+package com.kurama.feedcollector.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Polling health of a feed, for the admin view of failing feeds.
+ *
+ * @param disabledUntil   when the feed is polled again; null unless the feed is unhealthy
+ * @param hostCircuitOpen whether polls of every feed on this feed's host are currently skipped
+ */
+public record FeedHealth(
+        UUID id,
+        String url,
+        String title,
+        int consecutiveFailures,
+        String lastError,
+        Instant lastErrorAt,
+        Instant lastPolledAt,
+        Instant disabledUntil,
+        boolean hostCircuitOpen
+) {
+}
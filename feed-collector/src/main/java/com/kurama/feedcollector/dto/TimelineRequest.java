@@ -0,0 +1,13 @@
+package com.kurama.feedcollector.dto;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class TimelineRequest {
+    private List<UUID> feedIds;
+    private String cursor;
+    private Integer size;
+}
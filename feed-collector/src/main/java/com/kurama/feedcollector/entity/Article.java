@@ -9,7 +9,7 @@ import java.util.Date;
 import java.util.UUID;
 
 @Entity
-@Table(name = "articles")
+@Table(name = "articles", indexes = @Index(name = "idx_articles_feed_publish_date", columnList = "feedId, publishDate DESC, guid DESC"))
 @Getter
 @Setter
 @NoArgsConstructor
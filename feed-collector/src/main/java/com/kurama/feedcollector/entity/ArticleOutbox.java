@@ -0,0 +1,49 @@
+package com.kurama.feedcollector.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One pending {@code NEW_ARTICLES} message. Rows are written in the same transaction as the article itself and
+ * drained by {@link com.kurama.feedcollector.service.outbox.ArticleOutboxRelay}.
+ */
+@Entity
+@Table(name = "article_outbox", indexes = @Index(name = "idx_article_outbox_pending", columnList = "publishedAt, nextAttemptAt"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class ArticleOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String articleGuid;
+
+    private UUID feedId;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Retry state: the relay skips the row until nextAttemptAt has passed
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    private int attempts;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    // Where the record landed once the broker acknowledged it
+    private Instant publishedAt;
+
+    private Integer kafkaPartition;
+
+    private Long kafkaOffset;
+}
@@ -1,5 +1,6 @@
 package com.kurama.feedcollector.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -8,7 +9,7 @@ import java.util.UUID;
 
 @Data
 @Entity
-@Table(name = "feeds")
+@Table(name = "feeds", indexes = @Index(name = "idx_feeds_next_poll_at", columnList = "nextPollAt"))
 public class Feed {
     @Id
     @GeneratedValue
@@ -23,6 +24,44 @@ public class Feed {
 
     private Instant lastPolledAt;
 
+    // HTTP validators from the last successful fetch, sent back as If-None-Match / If-Modified-Since
+    @JsonIgnore
+    private String etag;
+
+    @JsonIgnore
+    private String lastModified;
+
+    // Adaptive schedule: the feed is picked up again once nextPollAt has passed; a new feed is due right away
+    @JsonIgnore
+    @Column(nullable = false)
+    private Instant nextPollAt = Instant.now();
+
+    @JsonIgnore
+    private Integer pollIntervalSeconds;
+
+    // Failure tracking: reset by every successful poll; disabledUntil is only set while the feed is unhealthy
+    @JsonIgnore
+    @Column(nullable = false)
+    private int consecutiveFailures;
+
+    @JsonIgnore
+    @Column(length = 1000)
+    private String lastError;
+
+    @JsonIgnore
+    private Instant lastErrorAt;
+
+    @JsonIgnore
+    private Instant disabledUntil;
+
+    // Set while an instance is polling the feed; cleared when the poll is recorded
+    @JsonIgnore
+    @Column(length = 100)
+    private String leasedBy;
+
+    @JsonIgnore
+    private Instant leasedUntil;
+
     public Feed() {
     }
 
@@ -0,0 +1,142 @@
+package com.kurama.feedcollector.repository;
+
+import com.kurama.feedcollector.entity.Article;
+import com.kurama.feedcollector.service.ArticlesIngestedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk write path for {@link Article}.
+ * <p>
+ * {@code saveAll} on an entity with an assigned id merges row by row (SELECT, then INSERT). This repository sends
+ * plain JDBC batches of {@code INSERT ... ON CONFLICT DO NOTHING} instead ({@code guid} is the only unique key) and
+ * asks the driver for the generated {@code guid} keys, which PostgreSQL only returns for rows that were actually
+ * inserted. Dedup and insert happen in one round trip per batch, and concurrent pollers that see the same GUID cannot
+ * both insert it.
+ * <p>
+ * Every inserted row also gets an {@code article_outbox} row in the same transaction, so an article is stored if and
+ * only if its {@code NEW_ARTICLES} message is queued for the outbox relay. An {@link ArticlesIngestedEvent} per feed
+ * is published in that transaction as well.
+ */
+@Repository
+public class ArticleBatchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO articles (guid, title, link, description, author, publish_date, content, category, feed_id, created_date)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT DO NOTHING""";
+
+    private static final String OUTBOX_SQL = """
+            INSERT INTO article_outbox (article_guid, feed_id, created_at, next_attempt_at, attempts)
+            VALUES (?, ?, ?, ?, 0)""";
+
+    // Same zone Hibernate writes timestamps in (hibernate.jdbc.time_zone)
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public ArticleBatchRepository(JdbcTemplate jdbcTemplate,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${feed.persistence.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Inserts the articles that are not stored yet, queues an outbox message for each of them and returns the GUIDs
+     * of exactly those rows.
+     */
+    @Transactional
+    public List<String> insertAndEnqueue(List<Article> articles) {
+        List<String> inserted = new ArrayList<>();
+        for (int from = 0; from < articles.size(); from += batchSize) {
+            List<Article> batch = articles.subList(from, Math.min(from + batchSize, articles.size()));
+            inserted.addAll(jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+                // Asking for generated keys makes the driver append RETURNING guid to every statement in the batch
+                try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[]{"guid"})) {
+                    Date now = new Date();
+                    for (Article article : batch) {
+                        bind(statement, article, now);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    return insertedGuids(statement);
+                }
+            }));
+        }
+        enqueue(articles, inserted);
+        return inserted;
+    }
+
+    private void enqueue(List<Article> articles, List<String> inserted) {
+        if (inserted.isEmpty()) {
+            return;
+        }
+        Set<String> insertedGuids = new HashSet<>(inserted);
+        List<Article> queued = articles.stream()
+                .filter(article -> insertedGuids.contains(article.getGuid()))
+                .toList();
+        Timestamp now = Timestamp.from(Instant.now());
+        Calendar utc = Calendar.getInstance(UTC);
+        jdbcTemplate.batchUpdate(OUTBOX_SQL, queued, batchSize, (statement, article) -> {
+            statement.setString(1, article.getGuid());
+            statement.setObject(2, article.getFeedId());
+            statement.setTimestamp(3, now, utc);
+            statement.setTimestamp(4, now, utc);
+        });
+        queued.stream()
+                .filter(article -> article.getFeedId() != null)
+                .collect(Collectors.groupingBy(Article::getFeedId))
+                .forEach((feedId, feedArticles) -> eventPublisher.publishEvent(new ArticlesIngestedEvent(feedId, feedArticles)));
+    }
+
+    private static void bind(PreparedStatement statement, Article article, Date now) throws SQLException {
+        Calendar utc = Calendar.getInstance(UTC);
+        statement.setString(1, article.getGuid());
+        statement.setString(2, article.getTitle());
+        statement.setString(3, article.getLink());
+        statement.setString(4, article.getDescription());
+        statement.setString(5, article.getAuthor());
+        if (article.getPublishDate() != null) {
+            statement.setTimestamp(6, new Timestamp(article.getPublishDate().getTime()), utc);
+        } else {
+            statement.setNull(6, Types.TIMESTAMP);
+        }
+        statement.setString(7, article.getContent());
+        statement.setString(8, article.getCategory());
+        statement.setObject(9, article.getFeedId());
+        statement.setTimestamp(10, new Timestamp(now.getTime()), utc);
+    }
+
+    private static List<String> insertedGuids(PreparedStatement statement) throws SQLException {
+        List<String> guids = new ArrayList<>();
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            while (keys.next()) {
+                guids.add(keys.getString(1));
+            }
+        }
+        return guids;
+    }
+}
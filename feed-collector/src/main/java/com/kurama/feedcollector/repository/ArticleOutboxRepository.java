@@ -0,0 +1,27 @@
+package com.kurama.feedcollector.repository;
+
+import com.kurama.feedcollector.entity.ArticleOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ArticleOutboxRepository extends JpaRepository<ArticleOutbox, Long> {
+
+    // Row locks are held until the claiming transaction ends; SKIP LOCKED lets several relays drain disjoint batches
+    @Query(value = "select * from article_outbox where published_at is null and next_attempt_at <= :now "
+            + "order by id limit :limit for update skip locked", nativeQuery = true)
+    List<ArticleOutbox> claimBatch(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Query("select count(o) from ArticleOutbox o where o.publishedAt is null")
+    long countPending();
+
+    @Transactional
+    @Modifying
+    @Query("delete from ArticleOutbox o where o.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") Instant before);
+}
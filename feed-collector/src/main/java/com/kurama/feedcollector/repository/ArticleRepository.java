@@ -1,22 +1,68 @@
 package com.kurama.feedcollector.repository;
 
+import com.kurama.feedcollector.dto.ArticleSummary;
 import com.kurama.feedcollector.entity.Article;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ArticleRepository extends JpaRepository<Article, String> {
+
+    // List pages select only the headline columns
+    String SUMMARY = "select new com.kurama.feedcollector.dto.ArticleSummary("
+            + "a.guid, a.title, a.link, a.author, a.publishDate, a.category, a.feedId) from Article a ";
+
     List<Article> findByFeedIdOrderByPublishDateDesc(UUID feedId);
     Boolean existsByGuid(String guid);
 
-    // Find articles by multiple GUIDs in one query
-    List<Article> findByGuidIn(List<String> guids);
+    // Which of these GUIDs are stored; selects only the guid column
+    @Query("select a.guid from Article a where a.guid in :guids")
+    List<String> findExistingGuids(@Param("guids") Collection<String> guids);
+
+    // Every stored GUID, streamed in chunks; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("select a.guid from Article a")
+    Stream<String> streamAllGuids();
+
+    // GUIDs of the newest articles of a feed, used to stop parsing at the first already-known entry
+    @Query("select a.guid from Article a where a.feedId = :feedId order by a.publishDate desc")
+    List<String> findRecentGuids(@Param("feedId") UUID feedId, Limit limit);
+
+    @Query(value = SUMMARY + "where a.feedId = :feedId order by a.publishDate desc",
+            countQuery = "select count(a) from Article a where a.feedId = :feedId")
+    Page<ArticleSummary> findSummariesByFeedId(@Param("feedId") UUID feedId, Pageable pageable);
+
+    // Keyset pages in (publishDate desc, guid desc) order, dated articles first; each one is a range scan on
+    // (feed_id, publish_date, guid) however deep the page is
+    @Query(SUMMARY + "where a.feedId = :feedId and a.publishDate is not null "
+            + "order by a.publishDate desc, a.guid desc")
+    List<ArticleSummary> findFirstDated(@Param("feedId") UUID feedId, Limit limit);
+
+    @Query(SUMMARY + "where a.feedId = :feedId and a.publishDate <= :publishDate "
+            + "and (a.publishDate < :publishDate or a.guid < :guid) order by a.publishDate desc, a.guid desc")
+    List<ArticleSummary> findDatedAfter(@Param("feedId") UUID feedId, @Param("publishDate") Date publishDate,
+                                 @Param("guid") String guid, Limit limit);
+
+    @Query(SUMMARY + "where a.feedId = :feedId and a.publishDate is null order by a.guid desc")
+    List<ArticleSummary> findFirstUndated(@Param("feedId") UUID feedId, Limit limit);
+
+    @Query(SUMMARY + "where a.feedId = :feedId and a.publishDate is null and a.guid < :guid "
+            + "order by a.guid desc")
+    List<ArticleSummary> findUndatedAfter(@Param("feedId") UUID feedId, @Param("guid") String guid, Limit limit);
 
-    // Added pageable variant for pagination support
-    Page<Article> findByFeedIdOrderByPublishDateDesc(UUID feedId, Pageable pageable);
+    long countByFeedId(UUID feedId);
 }
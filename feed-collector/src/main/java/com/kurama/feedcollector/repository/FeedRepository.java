@@ -1,11 +1,100 @@
 package com.kurama.feedcollector.repository;
 
 import com.kurama.feedcollector.entity.Feed;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface FeedRepository extends JpaRepository<Feed, UUID> {
     Optional<Feed> findByUrl(String url);
+
+    // Slices skip the count query a Page would need
+    Slice<Feed> findAllBy(Pageable pageable);
+
+    // A range scan on idx_feeds_next_poll_at; new feeds are due immediately. Row locks are held until the claiming
+    // transaction ends; SKIP LOCKED lets several instances claim disjoint batches
+    @Query(value = "select * from feeds where next_poll_at <= :now order by next_poll_at limit :limit "
+            + "for update skip locked", nativeQuery = true)
+    List<Feed> claimDueFeeds(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query("update Feed f set f.leasedBy = :owner, f.leasedUntil = :until, f.nextPollAt = :until where f.id in :ids")
+    int lease(@Param("ids") Collection<UUID> ids, @Param("owner") String owner, @Param("until") Instant until);
+
+    // For polls outside the schedule: only takes the feed if no other poll holds a live lease on it
+    @Transactional
+    @Modifying
+    @Query("update Feed f set f.leasedBy = :owner, f.leasedUntil = :until, f.nextPollAt = :until "
+            + "where f.id = :id and (f.leasedUntil is null or f.leasedUntil <= :now)")
+    int leaseIfFree(@Param("id") UUID id, @Param("owner") String owner, @Param("now") Instant now,
+                    @Param("until") Instant until);
+
+    // Only releases leases that are still the owner's, so a lease taken over by another instance is left alone
+    @Transactional
+    @Modifying
+    @Query("update Feed f set f.leasedBy = null, f.leasedUntil = null, f.nextPollAt = :now "
+            + "where f.id in :ids and f.leasedBy = :owner")
+    int release(@Param("ids") Collection<UUID> ids, @Param("owner") String owner, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("update Feed f set f.leasedBy = null, f.leasedUntil = null, f.nextPollAt = :now where f.leasedBy = :owner")
+    int releaseAll(@Param("owner") String owner, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("update Feed f set f.url = :url where f.id = :id")
+    int updateUrl(@Param("id") UUID id, @Param("url") String url);
+
+    // Unhealthy feeds for the admin view, worst first
+    List<Feed> findByConsecutiveFailuresGreaterThanEqualOrderByConsecutiveFailuresDesc(int failures, Limit limit);
+
+    // Only touches the polling columns so a poll never overwrites concurrent edits to title etc. Like recordFailure
+    // and postpone, it ends the owner's lease and leaves a feed alone that another instance leased after ours ran out
+    @Transactional
+    @Modifying
+    @Query("update Feed f set f.lastPolledAt = :polledAt, f.etag = :etag, f.lastModified = :lastModified, "
+            + "f.nextPollAt = :nextPollAt, f.pollIntervalSeconds = :pollIntervalSeconds, "
+            + "f.consecutiveFailures = 0, f.disabledUntil = null, f.leasedBy = null, f.leasedUntil = null "
+            + "where f.id = :id and (f.leasedBy is null or f.leasedBy = :owner)")
+    int updatePollState(@Param("id") UUID id,
+                        @Param("owner") String owner,
+                        @Param("polledAt") Instant polledAt,
+                        @Param("etag") String etag,
+                        @Param("lastModified") String lastModified,
+                        @Param("nextPollAt") Instant nextPollAt,
+                        @Param("pollIntervalSeconds") Integer pollIntervalSeconds);
+
+    // Leaves the validators and the healthy poll interval alone, so the feed resumes its old schedule once it recovers
+    @Transactional
+    @Modifying
+    @Query("update Feed f set f.lastPolledAt = :polledAt, f.nextPollAt = :nextPollAt, "
+            + "f.consecutiveFailures = :consecutiveFailures, f.lastError = :lastError, f.lastErrorAt = :polledAt, "
+            + "f.disabledUntil = :disabledUntil, f.leasedBy = null, f.leasedUntil = null "
+            + "where f.id = :id and (f.leasedBy is null or f.leasedBy = :owner)")
+    int recordFailure(@Param("id") UUID id,
+                      @Param("owner") String owner,
+                      @Param("polledAt") Instant polledAt,
+                      @Param("nextPollAt") Instant nextPollAt,
+                      @Param("consecutiveFailures") int consecutiveFailures,
+                      @Param("lastError") String lastError,
+                      @Param("disabledUntil") Instant disabledUntil);
+
+    @Transactional
+    @Modifying
+    @Query("update Feed f set f.nextPollAt = :nextPollAt, f.leasedBy = null, f.leasedUntil = null "
+            + "where f.id = :id and (f.leasedBy is null or f.leasedBy = :owner)")
+    int postpone(@Param("id") UUID id, @Param("owner") String owner, @Param("nextPollAt") Instant nextPollAt);
 }
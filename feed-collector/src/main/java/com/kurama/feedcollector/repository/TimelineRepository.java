@@ -0,0 +1,83 @@
+package com.kurama.feedcollector.repository;
+
+import com.kurama.feedcollector.dto.ArticleSummary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.UUID;
+
+/**
+ * Newest dated articles of several feeds in one round trip.
+ * <p>
+ * Each feed gets its own {@code UNION ALL} branch with its own {@code ORDER BY ... LIMIT}, so every branch is a short
+ * range scan on {@code idx_articles_feed_publish_date} that stops after {@code limit} rows, however large the feed
+ * is. A single {@code feed_id IN (...)} query would instead read and sort every article of every feed. The branches
+ * come back unordered; merging them is up to the caller, in the code point order that {@code guid}'s {@code "C"}
+ * collation gives these queries.
+ */
+@Repository
+public class TimelineRepository {
+
+    private static final String COLUMNS = "select guid, title, link, author, publish_date, category, feed_id from articles ";
+    private static final String FIRST = "(" + COLUMNS
+            + "where feed_id = ? and publish_date is not null order by publish_date desc, guid desc limit ?)";
+    private static final String AFTER = "(" + COLUMNS
+            + "where feed_id = ? and publish_date <= ? and (publish_date < ? or guid < ?) "
+            + "order by publish_date desc, guid desc limit ?)";
+
+    // Same zone Hibernate writes timestamps in (hibernate.jdbc.time_zone)
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TimelineRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Up to {@code limit} articles per feed, newest first within each feed, that sort after the given position.
+     *
+     * @param publishDate position to continue after, or null to start at the newest article
+     */
+    public List<ArticleSummary> findNewestPerFeed(List<UUID> feedIds, Date publishDate, String guid, int limit) {
+        if (feedIds.isEmpty()) {
+            return List.of();
+        }
+        String branch = publishDate == null ? FIRST : AFTER;
+        String sql = String.join(" union all ", Collections.nCopies(feedIds.size(), branch));
+        return jdbcTemplate.query(sql, statement -> {
+            Calendar utc = Calendar.getInstance(UTC);
+            int index = 1;
+            for (UUID feedId : feedIds) {
+                statement.setObject(index++, feedId);
+                if (publishDate != null) {
+                    Timestamp after = new Timestamp(publishDate.getTime());
+                    statement.setTimestamp(index++, after, utc);
+                    statement.setTimestamp(index++, after, utc);
+                    statement.setString(index++, guid);
+                }
+                statement.setInt(index++, limit);
+            }
+        }, (rs, rowNum) -> summary(rs));
+    }
+
+    private static ArticleSummary summary(ResultSet rs) throws SQLException {
+        Timestamp publishDate = rs.getTimestamp("publish_date", Calendar.getInstance(UTC));
+        return new ArticleSummary(
+                rs.getString("guid"),
+                rs.getString("title"),
+                rs.getString("link"),
+                rs.getString("author"),
+                publishDate != null ? new Date(publishDate.getTime()) : null,
+                rs.getString("category"),
+                rs.getObject("feed_id", UUID.class));
+    }
+}
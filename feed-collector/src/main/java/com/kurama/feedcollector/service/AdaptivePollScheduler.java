@@ -0,0 +1,79 @@
+package com.kurama.feedcollector.service;
+
+import com.kurama.feedcollector.entity.Feed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Decides how long to wait before polling a feed again.
+ * <p>
+ * The interval doubles (up to {@code maxInterval}) every time a poll finds nothing new and halves (down to
+ * {@code minInterval}) every time it finds new articles, so each feed converges towards its own publish rate.
+ * A refresh hint advertised by the feed itself is treated as a lower bound. Failing feeds keep their interval and
+ * are retried after {@link #failureBackoff} instead.
+ */
+@Component
+public class AdaptivePollScheduler {
+
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final double backoffFactor;
+    private final Duration maxFailureBackoff;
+
+    public AdaptivePollScheduler(
+            @Value("${feed.poll.min-interval:30s}") Duration minInterval,
+            @Value("${feed.poll.max-interval:6h}") Duration maxInterval,
+            @Value("${feed.poll.backoff-factor:2.0}") double backoffFactor,
+            @Value("${feed.poll.failure.max-backoff:24h}") Duration maxFailureBackoff
+    ) {
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+        this.backoffFactor = backoffFactor;
+        this.maxFailureBackoff = maxFailureBackoff;
+    }
+
+    public Duration nextInterval(Feed feed, PollOutcome outcome) {
+        Duration current = feed.getPollIntervalSeconds() != null
+                ? Duration.ofSeconds(feed.getPollIntervalSeconds())
+                : minInterval;
+
+        Duration next = switch (outcome.status()) {
+            case FETCHED -> outcome.newArticles() > 0
+                    ? current.dividedBy(2)
+                    : multiply(current, backoffFactor);
+            case NOT_MODIFIED -> multiply(current, backoffFactor);
+            case FAILED, SKIPPED -> current;
+        };
+
+        if (outcome.publisherHint() != null && outcome.publisherHint().compareTo(next) > 0) {
+            next = outcome.publisherHint();
+        }
+        return clamp(next);
+    }
+
+    /**
+     * Delay before retrying a feed after its {@code consecutiveFailures}-th failure in a row: {@code minInterval},
+     * doubled for every further failure, up to {@code failure.max-backoff}. Unlike the regular interval it may exceed
+     * {@code maxInterval}, so dead feeds cost almost nothing.
+     */
+    public Duration failureBackoff(int consecutiveFailures) {
+        Duration backoff = minInterval.multipliedBy(1L << Math.min(Math.max(consecutiveFailures - 1, 0), 30));
+        return backoff.compareTo(maxFailureBackoff) > 0 ? maxFailureBackoff : backoff;
+    }
+
+    private Duration clamp(Duration interval) {
+        if (interval.compareTo(minInterval) < 0) {
+            return minInterval;
+        }
+        if (interval.compareTo(maxInterval) > 0) {
+            return maxInterval;
+        }
+        return interval;
+    }
+
+    private static Duration multiply(Duration duration, double factor) {
+        return Duration.ofMillis((long) (duration.toMillis() * factor));
+    }
+}
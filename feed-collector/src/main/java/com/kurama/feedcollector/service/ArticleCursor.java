@@ -0,0 +1,45 @@
+package com.kurama.feedcollector.service;
+
+import com.kurama.feedcollector.dto.ArticleSummary;
+import com.kurama.feedcollector.service.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Position after the last article of a page, in (publishDate desc, guid desc) order. Articles without a publish date
+ * sort after all dated ones. Clients only ever see the opaque token.
+ */
+record ArticleCursor(Long publishDate, String guid) {
+
+    private static final String UNDATED = "-";
+
+    static ArticleCursor after(ArticleSummary article) {
+        Date publishDate = article.publishDate();
+        return new ArticleCursor(publishDate != null ? publishDate.getTime() : null, article.guid());
+    }
+
+    boolean undated() {
+        return publishDate == null;
+    }
+
+    String encode() {
+        String raw = (publishDate != null ? publishDate.toString() : UNDATED) + '|' + guid;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ArticleCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            String date = raw.substring(0, separator);
+            return new ArticleCursor(UNDATED.equals(date) ? null : Long.valueOf(date), raw.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
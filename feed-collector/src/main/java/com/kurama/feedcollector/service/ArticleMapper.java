@@ -2,6 +2,7 @@ package com.kurama.feedcollector.service;
 
 import com.kurama.feedcollector.dto.ArticleDto;
 import com.kurama.feedcollector.entity.Article;
+import com.kurama.schema.ArticleMessage;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -23,6 +24,20 @@ public class ArticleMapper {
                 .build();
     }
 
+    public ArticleMessage toMessage(Article article) {
+        return ArticleMessage.builder()
+                .guid(article.getGuid())
+                .title(article.getTitle())
+                .link(article.getLink())
+                .description(article.getDescription())
+                .author(article.getAuthor())
+                .publishDate(article.getPublishDate() != null ? article.getPublishDate().getTime() : null)
+                .content(article.getContent())
+                .category(article.getCategory())
+                .feedId(article.getFeedId())
+                .build();
+    }
+
     public List<ArticleDto> toDtoList(List<Article> articles) {
         return articles.stream()
                 .map(this::toDto)
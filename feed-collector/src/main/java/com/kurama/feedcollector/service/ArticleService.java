@@ -1,24 +1,56 @@
 package com.kurama.feedcollector.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.kurama.feedcollector.dto.ArticleDto;
+import com.kurama.feedcollector.dto.ArticleSummary;
+import com.kurama.feedcollector.dto.CursorPage;
 import com.kurama.feedcollector.dto.PagedResponse;
 import com.kurama.feedcollector.entity.Article;
 import com.kurama.feedcollector.repository.ArticleRepository;
-import lombok.RequiredArgsConstructor;
+import com.kurama.feedcollector.service.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class ArticleService {
 
     private final ArticleRepository articleRepository;
+    private final int maxScrollSize;
+    // Counting a large feed is a full index range scan, so cursor pages reuse a recent count until new articles arrive
+    private final Cache<UUID, Long> totals;
+
+    public ArticleService(
+            ArticleRepository articleRepository,
+            @Value("${feed.articles.max-scroll-size:100}") int maxScrollSize,
+            @Value("${feed.articles.total-ttl:60s}") Duration totalTtl,
+            @Value("${feed.articles.total-cache-size:10000}") long totalCacheSize
+    ) {
+        this.articleRepository = articleRepository;
+        this.maxScrollSize = maxScrollSize;
+        this.totals = Caffeine.newBuilder()
+                .expireAfterWrite(totalTtl)
+                .maximumSize(totalCacheSize)
+                .build();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticlesIngested(ArticlesIngestedEvent event) {
+        totals.invalidate(event.feedId());
+    }
 
     public List<ArticleDto> getArticlesByFeedId(UUID feedId) {
         List<Article> articles = articleRepository.findByFeedIdOrderByPublishDateDesc(feedId);
@@ -29,12 +61,11 @@ public class ArticleService {
     }
 
     // New paginated variant
-    public PagedResponse<ArticleDto> getArticlesByFeedId(UUID feedId, int page, int size) {
+    public PagedResponse<ArticleSummary> getArticlesByFeedId(UUID feedId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Article> paged = articleRepository.findByFeedIdOrderByPublishDateDesc(feedId, pageable);
-        List<ArticleDto> items = paged.getContent().stream().map(this::toDto).collect(Collectors.toList());
-        return PagedResponse.<ArticleDto>builder()
-                .items(items)
+        Page<ArticleSummary> paged = articleRepository.findSummariesByFeedId(feedId, pageable);
+        return PagedResponse.<ArticleSummary>builder()
+                .items(paged.getContent())
                 .page(paged.getNumber())
                 .size(paged.getSize())
                 .totalElements(paged.getTotalElements())
@@ -44,6 +75,51 @@ public class ArticleService {
                 .build();
     }
 
+    /**
+     * Keyset-paginated articles of a feed, newest first. Never counts unless {@code withTotal} is set, and every page
+     * costs the same as the first one.
+     *
+     * @param cursor the {@code nextCursor} of the previous page, or null for the first page
+     */
+    public CursorPage<ArticleSummary> scrollArticlesByFeedId(UUID feedId, String cursor, int size, boolean withTotal) {
+        if (size < 1 || size > maxScrollSize) {
+            throw new BadRequestException("Page size must be between 1 and " + maxScrollSize);
+        }
+        ArticleCursor after = cursor != null && !cursor.isBlank() ? ArticleCursor.decode(cursor) : null;
+
+        // One extra row tells whether there is a next page without a count query
+        Limit limit = Limit.of(size + 1);
+        List<ArticleSummary> articles = new ArrayList<>(size + 1);
+        if (after == null || !after.undated()) {
+            articles.addAll(after == null
+                    ? articleRepository.findFirstDated(feedId, limit)
+                    : articleRepository.findDatedAfter(feedId, new Date(after.publishDate()), after.guid(), limit));
+        }
+        if (articles.size() <= size) {
+            Limit remaining = Limit.of(size + 1 - articles.size());
+            articles.addAll(after == null || !after.undated()
+                    ? articleRepository.findFirstUndated(feedId, remaining)
+                    : articleRepository.findUndatedAfter(feedId, after.guid(), remaining));
+        }
+
+        boolean hasNext = articles.size() > size;
+        List<ArticleSummary> page = hasNext ? articles.subList(0, size) : articles;
+        return CursorPage.<ArticleSummary>builder()
+                .items(page)
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? ArticleCursor.after(page.get(size - 1)).encode() : null)
+                .approximateTotal(withTotal ? totals.get(feedId, articleRepository::countByFeedId) : null)
+                .build();
+    }
+
+    /**
+     * The full article including its description and content.
+     */
+    public Optional<ArticleDto> getArticle(String guid) {
+        return articleRepository.findById(guid).map(this::toDto);
+    }
+
     private ArticleDto toDto(Article article) {
         return ArticleDto.builder()
                 .title(article.getTitle())
@@ -0,0 +1,17 @@
+package com.kurama.feedcollector.service;
+
+import com.kurama.feedcollector.entity.Article;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published inside the transaction that stored new articles of a feed. Listeners that cache article reads use it,
+ * after commit, to drop exactly that feed's entries; the live stream pushes the articles to subscribers of the feed.
+ */
+public record ArticlesIngestedEvent(UUID feedId, List<Article> articles) {
+
+    public int count() {
+        return articles.size();
+    }
+}
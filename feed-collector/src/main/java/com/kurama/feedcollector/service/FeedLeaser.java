@@ -0,0 +1,104 @@
+package com.kurama.feedcollector.service;
+
+import com.kurama.feedcollector.entity.Feed;
+import com.kurama.feedcollector.repository.FeedRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Splits polling between feed-collector instances through row leases on {@code feeds}.
+ * <p>
+ * An instance claims a batch of due feeds with {@code FOR UPDATE SKIP LOCKED}, so instances claiming at the same time
+ * get disjoint batches, and in the same transaction pushes their {@code next_poll_at} to the end of a {@code lease}.
+ * The row locks are gone once that transaction commits; the lease is what keeps other instances away while the feeds
+ * are polled, and recording a poll ends it. A poll only records its result while the feed is not leased by another
+ * instance, so a poll that outlived its lease does not end the next owner's. Polls triggered through the API take a
+ * lease on their feed first and skip feeds that are being polled elsewhere. Feeds leased by an instance that dies
+ * are due again when the lease runs out; an instance that shuts down cleanly hands its feeds back at once. Each
+ * instance polls up to {@code feed.poll.batch-size} feeds per tick, so polling throughput grows with the number of
+ * instances.
+ */
+@Component
+@Log4j2
+public class FeedLeaser {
+
+    private final FeedRepository feedRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String instanceId;
+    private final Duration lease;
+
+    public FeedLeaser(
+            FeedRepository feedRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${feed.poll.instance-id:}") String instanceId,
+            @Value("${feed.poll.lease:3m}") Duration lease
+    ) {
+        this.feedRepository = feedRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.instanceId = instanceId.isBlank() ? defaultInstanceId() : instanceId;
+        this.lease = lease;
+    }
+
+    /**
+     * Claims up to {@code limit} due feeds for this instance, oldest due first.
+     */
+    public List<Feed> leaseDueFeeds(int limit) {
+        List<Feed> leased = transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<Feed> due = feedRepository.claimDueFeeds(now, limit);
+            if (!due.isEmpty()) {
+                feedRepository.lease(due.stream().map(Feed::getId).toList(), instanceId, now.plus(lease));
+            }
+            return due;
+        });
+        return leased != null ? leased : List.of();
+    }
+
+    /**
+     * Leases one feed for a poll outside the schedule. False if another poll, on any instance, holds a live lease on it.
+     */
+    public boolean tryLease(UUID feedId) {
+        Instant now = Instant.now();
+        return feedRepository.leaseIfFree(feedId, instanceId, now, now.plus(lease)) > 0;
+    }
+
+    /**
+     * Makes leased feeds that were not polled due again right away.
+     */
+    public void release(Collection<UUID> feedIds) {
+        feedRepository.release(feedIds, instanceId, Instant.now());
+    }
+
+    @PreDestroy
+    public void releaseAll() {
+        int released = feedRepository.releaseAll(instanceId, Instant.now());
+        if (released > 0) {
+            log.info("Released {} feed leases held by {}", released, instanceId);
+        }
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    private static String defaultInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+}
@@ -0,0 +1,170 @@
+package com.kurama.feedcollector.service;
+
+import com.kurama.feedcollector.entity.Feed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Fans feed polls out across virtual threads.
+ * <p>
+ * Every feed gets its own virtual thread, but only {@code maxConcurrency} of them may fetch at once and
+ * only {@code maxPerHost} of them may talk to the same host, so one slow host cannot stall the cycle.
+ * Feeds that cannot get a permit before the cycle deadline are skipped and picked up by the next cycle.
+ */
+@Component
+@Log4j2
+public class FeedPollingEngine {
+
+    private final int maxPerHost;
+    private final Duration cycleTimeout;
+    private final Semaphore globalPermits;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Timer cycleTimer;
+    private final Counter polledCounter;
+    private final Counter skippedCounter;
+
+    public FeedPollingEngine(
+            @Value("${feed.poll.max-concurrency:64}") int maxConcurrency,
+            @Value("${feed.poll.max-per-host:4}") int maxPerHost,
+            @Value("${feed.poll.cycle-timeout:60s}") Duration cycleTimeout,
+            MeterRegistry meterRegistry
+    ) {
+        this.maxPerHost = maxPerHost;
+        this.cycleTimeout = cycleTimeout;
+        this.globalPermits = new Semaphore(maxConcurrency, true);
+        this.cycleTimer = Timer.builder("feed.poll.cycle")
+                .description("Wall time of one polling cycle")
+                .register(meterRegistry);
+        this.polledCounter = Counter.builder("feed.poll.feeds")
+                .tag("outcome", "polled")
+                .register(meterRegistry);
+        this.skippedCounter = Counter.builder("feed.poll.feeds")
+                .tag("outcome", "skipped")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Polls the given feeds concurrently and blocks until every feed was either polled or skipped.
+     */
+    public PollCycleResult runCycle(List<Feed> feeds, Consumer<Feed> task) {
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + cycleTimeout.toNanos();
+        AtomicInteger polled = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>(feeds.size());
+        for (Feed feed : feeds) {
+            futures.add(executor.submit(() -> {
+                if (pollWithPermits(feed, task, deadlineNanos)) {
+                    polled.incrementAndGet();
+                } else {
+                    skipped.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                break;
+            } catch (ExecutionException e) {
+                log.error("Unexpected failure in polling task", e.getCause());
+            }
+        }
+
+        Duration wallTime = Duration.ofNanos(System.nanoTime() - startNanos);
+        PollCycleResult result = new PollCycleResult(wallTime, polled.get(), skipped.get());
+        cycleTimer.record(wallTime);
+        polledCounter.increment(result.polled());
+        skippedCounter.increment(result.skipped());
+        log.info("Poll cycle finished in {} ms: {} feeds polled, {} skipped",
+                wallTime.toMillis(), result.polled(), result.skipped());
+        return result;
+    }
+
+    /**
+     * Polls one feed on the calling thread under the same global and per-host limits as a cycle. Returns false if no
+     * permit became available within the cycle timeout.
+     */
+    public boolean pollNow(Feed feed, Consumer<Feed> task) {
+        return pollWithPermits(feed, task, System.nanoTime() + cycleTimeout.toNanos());
+    }
+
+    private boolean pollWithPermits(Feed feed, Consumer<Feed> task, long deadlineNanos) {
+        String host = hostOf(feed.getUrl());
+        if (host == null) {
+            log.warn("Skipping feed {} with invalid url: {}", feed.getId(), feed.getUrl());
+            return false;
+        }
+        Semaphore hostPermit = hostPermits.computeIfAbsent(host, h -> new Semaphore(maxPerHost, true));
+        try {
+            if (!hostPermit.tryAcquire(remainingNanos(deadlineNanos), TimeUnit.NANOSECONDS)) {
+                log.debug("Skipping feed {}: no permit for host {} before cycle deadline", feed.getId(), host);
+                return false;
+            }
+            try {
+                if (!globalPermits.tryAcquire(remainingNanos(deadlineNanos), TimeUnit.NANOSECONDS)) {
+                    log.debug("Skipping feed {}: no global permit before cycle deadline", feed.getId());
+                    return false;
+                }
+                try {
+                    task.accept(feed);
+                    return true;
+                } finally {
+                    globalPermits.release();
+                }
+            } finally {
+                hostPermit.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static long remainingNanos(long deadlineNanos) {
+        return Math.max(0, deadlineNanos - System.nanoTime());
+    }
+
+    static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase(Locale.ROOT) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public record PollCycleResult(Duration wallTime, int polled, int skipped) {
+    }
+}
@@ -1,10 +1,14 @@
 package com.kurama.feedcollector.service;
 
 import com.kurama.feedcollector.dto.CreateFeedRequest;
+import com.kurama.feedcollector.dto.FeedHealth;
 import com.kurama.feedcollector.entity.Feed;
 import com.kurama.feedcollector.repository.FeedRepository;
+import com.kurama.feedcollector.service.cache.FeedReadCache;
 import com.kurama.feedcollector.service.exception.DuplicateFeedException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -13,15 +17,35 @@ import java.util.List;
 public class FeedService {
 
     private final FeedRepository repository;
+    private final FeedReadCache readCache;
+    private final HostCircuitBreaker circuitBreaker;
+    private final int unhealthyThreshold;
 
-    public FeedService(FeedRepository repository) {
+    public FeedService(FeedRepository repository, FeedReadCache readCache, HostCircuitBreaker circuitBreaker,
+                       @Value("${feed.poll.failure.threshold:3}") int unhealthyThreshold) {
         this.repository = repository;
+        this.readCache = readCache;
+        this.circuitBreaker = circuitBreaker;
+        this.unhealthyThreshold = unhealthyThreshold;
     }
 
     public List<Feed> getAll() {
         return repository.findAll();
     }
 
+    /**
+     * Feeds that failed at least {@code feed.poll.failure.threshold} polls in a row, most failures first.
+     */
+    public List<FeedHealth> getUnhealthy(int limit) {
+        return repository.findByConsecutiveFailuresGreaterThanEqualOrderByConsecutiveFailuresDesc(unhealthyThreshold,
+                        Limit.of(limit))
+                .stream()
+                .map(feed -> new FeedHealth(feed.getId(), feed.getUrl(), feed.getTitle(), feed.getConsecutiveFailures(),
+                        feed.getLastError(), feed.getLastErrorAt(), feed.getLastPolledAt(), feed.getDisabledUntil(),
+                        circuitBreaker.isOpen(feed.getUrl())))
+                .toList();
+    }
+
     public Feed createFeed(CreateFeedRequest request) {
         if (request == null || request.getUrl() == null || request.getUrl().isBlank()) {
             throw new IllegalArgumentException("url is required");
@@ -31,7 +55,9 @@ public class FeedService {
             throw new DuplicateFeedException("url already exists");
         }
         try {
-            return repository.save(Feed.of(request.getUrl(), request.getTitle(), request.getBackgroundImg()));
+            Feed saved = repository.save(Feed.of(request.getUrl(), request.getTitle(), request.getBackgroundImg()));
+            readCache.evictFeeds();
+            return saved;
         } catch (DataIntegrityViolationException e) {
             // In case of race conditions
             throw new DuplicateFeedException("url already exists", e);
@@ -0,0 +1,154 @@
+package com.kurama.feedcollector.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-host circuit breaker for feed fetches.
+ * <p>
+ * After {@code failure-threshold} connection failures or 5xx responses in a row from a host, the host's circuit opens
+ * and its feeds are skipped without a request until {@code open-duration} has passed. Then a single poll is let
+ * through as a probe: success closes the circuit, failure opens it again for twice as long, up to
+ * {@code max-open-duration}. Other feeds of the host stay skipped while the probe runs.
+ */
+@Component
+@Log4j2
+public class HostCircuitBreaker {
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Duration maxOpenDuration;
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    public HostCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${feed.poll.circuit.failure-threshold:5}") int failureThreshold,
+            @Value("${feed.poll.circuit.open-duration:1m}") Duration openDuration,
+            @Value("${feed.poll.circuit.max-open-duration:30m}") Duration maxOpenDuration
+    ) {
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.maxOpenDuration = maxOpenDuration;
+        Gauge.builder("feed.poll.open-circuits", circuits, c -> c.values().stream().filter(Circuit::isOpen).count())
+                .description("Feed hosts whose circuit is open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * True if a feed at this URL may be fetched now.
+     */
+    public boolean allowRequest(String url) {
+        Circuit circuit = circuits.get(key(url));
+        return circuit == null || circuit.allowRequest(Instant.now(), openDuration);
+    }
+
+    /**
+     * When the host's circuit may let the next probe through, or empty if it is closed. While a probe runs that is
+     * when the probe would be given up on, as the open period is already over.
+     */
+    public Optional<Instant> retryAt(String url) {
+        Circuit circuit = circuits.get(key(url));
+        return circuit != null ? circuit.retryAt(openDuration) : Optional.empty();
+    }
+
+    public boolean isOpen(String url) {
+        Circuit circuit = circuits.get(key(url));
+        return circuit != null && circuit.isOpen();
+    }
+
+    public void recordSuccess(String url) {
+        String host = key(url);
+        Circuit circuit = circuits.get(host);
+        if (circuit != null && circuit.recordSuccess()) {
+            log.info("Circuit for feed host {} closed", host);
+        }
+    }
+
+    public void recordFailure(String url) {
+        String host = key(url);
+        Duration opened = circuits.computeIfAbsent(host, h -> new Circuit())
+                .recordFailure(Instant.now(), failureThreshold, openDuration, maxOpenDuration);
+        if (opened != null) {
+            log.warn("Circuit for feed host {} opened for {} after repeated failures", host, opened);
+        }
+    }
+
+    // Feeds without a valid host share one circuit; they cannot be fetched anyway
+    private static String key(String url) {
+        String host = FeedPollingEngine.hostOf(url);
+        return host != null ? host : "";
+    }
+
+    private static final class Circuit {
+
+        private int failures;
+        private Duration lastOpenDuration;
+        private Instant openUntil;
+        private Instant probeStartedAt;
+
+        synchronized boolean allowRequest(Instant now, Duration probeTimeout) {
+            if (openUntil == null) {
+                return true;
+            }
+            if (now.isBefore(openUntil)) {
+                return false;
+            }
+            // One probe at a time; a probe that never reported back is replaced after probeTimeout
+            if (probeStartedAt != null && now.isBefore(probeStartedAt.plus(probeTimeout))) {
+                return false;
+            }
+            probeStartedAt = now;
+            return true;
+        }
+
+        synchronized Optional<Instant> retryAt(Duration probeTimeout) {
+            if (openUntil == null) {
+                return Optional.empty();
+            }
+            if (probeStartedAt != null && probeStartedAt.plus(probeTimeout).isAfter(openUntil)) {
+                return Optional.of(probeStartedAt.plus(probeTimeout));
+            }
+            return Optional.of(openUntil);
+        }
+
+        synchronized boolean isOpen() {
+            return openUntil != null;
+        }
+
+        // Returns true if this closed an open circuit
+        synchronized boolean recordSuccess() {
+            boolean wasOpen = openUntil != null;
+            failures = 0;
+            lastOpenDuration = null;
+            openUntil = null;
+            probeStartedAt = null;
+            return wasOpen;
+        }
+
+        // Returns how long the circuit was opened for, or null if it did not open on this failure
+        synchronized Duration recordFailure(Instant now, int threshold, Duration openDuration, Duration maxOpenDuration) {
+            failures++;
+            boolean probeFailed = openUntil != null && probeStartedAt != null;
+            if (!probeFailed && (openUntil != null || failures < threshold)) {
+                return null;
+            }
+            Duration duration = lastOpenDuration == null ? openDuration : lastOpenDuration.multipliedBy(2);
+            if (duration.compareTo(maxOpenDuration) > 0) {
+                duration = maxOpenDuration;
+            }
+            lastOpenDuration = duration;
+            openUntil = now.plus(duration);
+            probeStartedAt = null;
+            return duration;
+        }
+    }
+}
@@ -1,22 +1,26 @@
 package com.kurama.feedcollector.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.kurama.feedcollector.dto.ArticleDto;
 import com.kurama.feedcollector.entity.Article;
 import com.kurama.feedcollector.entity.Feed;
-import com.kurama.feedcollector.repository.ArticleRepository;
+import com.kurama.feedcollector.repository.ArticleBatchRepository;
 import com.kurama.feedcollector.repository.FeedRepository;
-import com.rometools.rome.feed.synd.SyndFeed;
-import com.rometools.rome.io.SyndFeedInput;
+import com.kurama.feedcollector.service.dedup.SeenGuidCache;
+import com.kurama.feedcollector.service.fetch.FeedFetcher;
+import com.kurama.feedcollector.service.parser.FeedParser;
 
-import java.io.InputStreamReader;
+import java.io.IOException;
 import java.net.HttpURLConnection;
-import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -27,67 +31,204 @@ import org.springframework.stereotype.Service;
 public class PollFeedService {
 
     private final FeedRepository feedRepository;
-    private final ObjectMapper mapper;
-    private final ArticleRepository articleRepository;
-    private final KafkaArticleProducerService kafkaArticleProducerService;
-    private final ArticleMapper articleMapper;
+    private final ArticleBatchRepository articleBatchRepository;
+    private final FeedPollingEngine pollingEngine;
+    private final MeterRegistry meterRegistry;
+    private final AdaptivePollScheduler pollScheduler;
+    private final FeedParser feedParser;
+    private final SeenGuidCache seenGuidCache;
+    private final FeedFetcher feedFetcher;
+    private final HostCircuitBreaker circuitBreaker;
+    private final FeedLeaser feedLeaser;
 
-    @Scheduled(fixedDelay = 1000 * 30)
+    @Value("${feed.poll.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${feed.poll.tick-millis:5000}")
+    private long tickMillis;
+
+    @Value("${feed.poll.failure.threshold:3}")
+    private int unhealthyThreshold;
+
+    @Value("${feed.parser.stop-at-known-guid:true}")
+    private boolean stopAtKnownGuid;
+
+    // Ticks often and only picks feeds whose adaptive schedule says they are due and no other instance has leased
+    @Scheduled(initialDelayString = "${feed.poll.tick-millis:5000}", fixedDelayString = "${feed.poll.tick-millis:5000}")
     public void pollFeeds() {
-        log.info("Polling all feeds...");
-        List<Feed> feeds = feedRepository.findAll();
-        for (Feed feed : feeds) {
-            log.info("Polling feed with id: {}", feed.getId());
-            fetchFeed(feed.getUrl());
+        List<Feed> feeds = feedLeaser.leaseDueFeeds(batchSize);
+        if (feeds.isEmpty()) {
+            return;
+        }
+        log.info("Polling {} due feeds...", feeds.size());
+        Set<UUID> attempted = ConcurrentHashMap.newKeySet();
+        pollingEngine.runCycle(feeds, feed -> {
+            try {
+                pollFeed(feed);
+            } finally {
+                attempted.add(feed.getId());
+            }
+        });
+        // Feeds that got no permit before the cycle deadline go back to every instance instead of waiting out the lease
+        List<UUID> skipped = feeds.stream().map(Feed::getId).filter(id -> !attempted.contains(id)).toList();
+        if (!skipped.isEmpty()) {
+            feedLeaser.release(skipped);
+        }
+    }
+
+    public PollOutcome pollFeed(Feed feed) {
+        log.debug("Polling feed with id: {}", feed.getId());
+        if (!circuitBreaker.allowRequest(feed.getUrl())) {
+            // Parked until the host's circuit lets a probe through, so the feed does not come back every tick
+            Instant earliest = Instant.now().plusMillis(tickMillis);
+            Instant retryAt = circuitBreaker.retryAt(feed.getUrl()).filter(earliest::isBefore).orElse(earliest);
+            feedRepository.postpone(feed.getId(), feedLeaser.getInstanceId(), retryAt);
+            meterRegistry.counter("feed.poll.feeds", "outcome", "short_circuited").increment();
+            return PollOutcome.skipped(feed.getEtag(), feed.getLastModified());
         }
+        PollOutcome outcome = fetchFeed(feed);
+        Instant now = Instant.now();
+        Duration interval = pollScheduler.nextInterval(feed, outcome);
+        if (outcome.status() == PollOutcome.Status.FAILED) {
+            recordFailure(feed, outcome, interval, now);
+        } else {
+            feedRepository.updatePollState(feed.getId(), feedLeaser.getInstanceId(), now, outcome.etag(),
+                    outcome.lastModified(), now.plus(interval), (int) interval.toSeconds());
+        }
+        return outcome;
     }
 
-    private void fetchFeed(String url) {
+    // Only the first failure and the one that makes a feed unhealthy are logged above DEBUG, so dead feeds stay quiet
+    private void recordFailure(Feed feed, PollOutcome outcome, Duration interval, Instant now) {
+        int failures = feed.getConsecutiveFailures() + 1;
+        Duration backoff = pollScheduler.failureBackoff(failures);
+        Instant nextPollAt = now.plus(backoff.compareTo(interval) > 0 ? backoff : interval);
+        boolean unhealthy = failures >= unhealthyThreshold;
+        String error = outcome.error() != null && outcome.error().length() > 1000
+                ? outcome.error().substring(0, 1000)
+                : outcome.error();
+        feedRepository.recordFailure(feed.getId(), feedLeaser.getInstanceId(), now, nextPollAt, failures, error,
+                unhealthy ? nextPollAt : null);
+        if (failures == 1) {
+            log.warn("Polling feed {} failed: {}", feed.getUrl(), error);
+        } else if (failures == unhealthyThreshold) {
+            log.warn("Feed {} failed {} times in a row, last with: {}; retrying with backoff", feed.getUrl(), failures, error);
+        } else {
+            log.debug("Polling feed {} failed {} times in a row; next attempt at {}: {}", feed.getUrl(), failures,
+                    nextPollAt, error);
+        }
+    }
+
+    /*
+     * Only what says something about the host reaches the circuit breaker: connection errors and timeouts, 5xx
+     * responses, and bodies that stop arriving. A document that does not parse or an article that cannot be stored
+     * is a problem of that one feed, and the host still answered.
+     */
+    private PollOutcome fetchFeed(Feed source) {
+        String url = source.getUrl();
+        FeedFetcher.FetchResponse fetched;
         try {
-            HttpURLConnection connection = (HttpURLConnection) URI.create(url).toURL().openConnection();
-            connection.setRequestMethod("GET");
-            connection.setConnectTimeout(5000);
-            connection.setReadTimeout(5000);
-            try (var inputStream = connection.getInputStream()) {
-                SyndFeedInput input = new SyndFeedInput();
-                SyndFeed feed = input.build(new InputStreamReader(inputStream));
-                List<Article> allArticles = feed.getEntries().stream()
-                        .map(entry -> Article.builder().
-                                title(entry.getTitle()).
-                                link(entry.getLink()).
-                                description(entry.getDescription() != null ? entry.getDescription().getValue() : null).
-                                author(entry.getAuthor()).
-                                publishDate(entry.getPublishedDate()).
-                                guid(entry.getUri()).
-                                content(entry.getContents() != null && !entry.getContents().isEmpty() ? entry.getContents().get(0).getValue() : null).
-                                category(entry.getCategories() != null && !entry.getCategories().isEmpty() ? entry.getCategories().get(0).getName() : null).
-                                feedId(Objects.requireNonNull(feedRepository.findByUrl(url).orElse(null)).getId()).
-                                build())
-                        .toList();
-
-                List<Article> newArticles = filterNewArticles(allArticles);
-                if (!newArticles.isEmpty()) {
-                    log.info("Found {} new articles for feed: {}", newArticles.size(), url);
-                    articleRepository.saveAll(newArticles);
-                    // Send new articles to Kafka
-                    try {
-                        List<ArticleDto> articleDtos = articleMapper.toDtoList(newArticles);
-                        kafkaArticleProducerService.sendNewArticles(articleDtos);
-                        log.info("Successfully sent {} new articles to Kafka topic", newArticles.size());
-                    } catch (Exception kafkaException) {
-                        log.error("Failed to send articles to Kafka, but articles were saved to database", kafkaException);
-                    }
-                } else {
-                    log.info("No new articles found for feed: {}", url);
+            fetched = feedFetcher.fetch(url, source.getEtag(), source.getLastModified());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return PollOutcome.failed(0, source.getEtag(), source.getLastModified(), "Interrupted");
+        } catch (IOException e) {
+            circuitBreaker.recordFailure(url);
+            log.debug("Failed to fetch feed from url: {}", url, e);
+            return PollOutcome.failed(0, source.getEtag(), source.getLastModified(), e.toString());
+        } catch (Exception e) {
+            log.debug("Failed to fetch feed from url: {}", url, e);
+            return PollOutcome.failed(0, source.getEtag(), source.getLastModified(), e.toString());
+        }
+        try (FeedFetcher.FetchResponse response = fetched) {
+            int status = response.status();
+            meterRegistry.counter("feed.poll.responses", "status", String.valueOf(status)).increment();
+            if (status >= HttpURLConnection.HTTP_INTERNAL_ERROR) {
+                circuitBreaker.recordFailure(url);
+            } else if (status != HttpURLConnection.HTTP_OK) {
+                circuitBreaker.recordSuccess(url);
+            }
+            // A permanent redirect to a broken target must not replace a URL that may still work
+            if (response.permanentUrl() != null
+                    && (status == HttpURLConnection.HTTP_OK || status == HttpURLConnection.HTTP_NOT_MODIFIED)) {
+                moveFeed(source, response.permanentUrl());
+            }
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                log.debug("Feed not modified since last poll: {}", url);
+                return PollOutcome.notModified(status, source.getEtag(), source.getLastModified());
+            }
+            if (status != HttpURLConnection.HTTP_OK) {
+                return PollOutcome.failed(status, source.getEtag(), source.getLastModified(), "HTTP " + status);
+            }
+
+            // Feeds list newest first, so parsing can stop at the first entry we already stored
+            List<Article> allArticles = new ArrayList<>();
+            Duration publisherHint = feedParser.parse(response.body(), response.contentType(), source.getId(), article -> {
+                if (stopAtKnownGuid && article.getGuid() != null
+                        && seenGuidCache.isRecentlySeen(source.getId(), article.getGuid())) {
+                    return false;
                 }
+                allArticles.add(article);
+                return true;
+            });
+
+            List<Article> candidates = filterNewArticles(source.getId(), allArticles);
+            List<Article> newArticles = insertNew(source.getId(), candidates);
+            if (!newArticles.isEmpty()) {
+                // Published to Kafka by ArticleOutboxRelay, so a slow or unavailable broker never stalls polling
+                log.info("Found {} new articles for feed: {}", newArticles.size(), url);
+            } else {
+                log.info("No new articles found for feed: {}", url);
             }
+            circuitBreaker.recordSuccess(url);
+            // Validators are returned only after the body was fully processed, so a failed poll is retried in full
+            return new PollOutcome(PollOutcome.Status.FETCHED, status, newArticles.size(),
+                    response.etag(), response.lastModified(), publisherHint, null);
         } catch (Exception e) {
-            System.err.println("Failed to fetch or parse feed from url: " + url);
-            log.error("Failed to fetch or parse feed from url: {}", url, e);
+            if (causedByTimeout(e)) {
+                circuitBreaker.recordFailure(url);
+            } else {
+                circuitBreaker.recordSuccess(url);
+            }
+            // The message is kept on the feed and logged by recordFailure; the stack trace is rarely needed
+            log.debug("Failed to read or store feed from url: {}", url, e);
+            return PollOutcome.failed(0, source.getEtag(), source.getLastModified(), e.toString());
         }
     }
 
-    private List<Article> filterNewArticles(List<Article> articles) {
+    // Parsers may wrap the timeout of a body that stopped arriving
+    private static boolean causedByTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Later polls go straight to the new location; a URL that already belongs to another feed is left alone
+    private void moveFeed(Feed feed, String newUrl) {
+        try {
+            feedRepository.updateUrl(feed.getId(), newUrl);
+            log.info("Feed {} moved permanently from {} to {}", feed.getId(), feed.getUrl(), newUrl);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Feed {} redirects permanently to {}, which is already stored as another feed", feed.getId(), newUrl);
+        }
+    }
+
+    // The database decides which candidates are really new; only those get an outbox message
+    private List<Article> insertNew(UUID feedId, List<Article> candidates) {
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        Set<String> inserted = new HashSet<>(articleBatchRepository.insertAndEnqueue(candidates));
+        seenGuidCache.markKnown(feedId, candidates.stream().map(Article::getGuid).toList());
+        return candidates.stream()
+                .filter(article -> inserted.contains(article.getGuid()))
+                .toList();
+    }
+
+    private List<Article> filterNewArticles(UUID feedId, List<Article> articles) {
         if (articles.isEmpty()) {
             return articles;
         }
@@ -102,11 +243,8 @@ public class PollFeedService {
             return articles;
         }
 
-        // Query database once to get all existing articles with these GUIDs
-        List<Article> existingArticles = articleRepository.findByGuidIn(articleGuids);
-        Set<String> existingGuids = existingArticles.stream()
-                .map(Article::getGuid)
-                .collect(Collectors.toSet());
+        // Most GUIDs are answered by the in-memory cache; only uncertain ones reach the database
+        Set<String> existingGuids = seenGuidCache.findKnown(feedId, articleGuids);
 
         // Filter in memory - only keep articles whose GUID is not in the existing set
         return articles.stream()
@@ -0,0 +1,118 @@
+package com.kurama.feedcollector.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A poll requested through the API: one feed, or every feed when {@code feedId} is null. Written by the polling
+ * thread while the API reads it, so it is returned as-is and never copied.
+ */
+public class PollJob {
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        DONE,
+        FAILED
+    }
+
+    private final UUID id = UUID.randomUUID();
+    private final UUID feedId;
+    private final Instant requestedAt = Instant.now();
+    private final AtomicInteger feedsPolled = new AtomicInteger();
+    private final AtomicInteger feedsSkipped = new AtomicInteger();
+    private final AtomicInteger newArticles = new AtomicInteger();
+    private volatile State state = State.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    // Outcome of the feed's poll; single-feed jobs only
+    private volatile PollOutcome.Status result;
+    private volatile Integer httpStatus;
+    private volatile String error;
+
+    PollJob(UUID feedId) {
+        this.feedId = feedId;
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        state = State.RUNNING;
+    }
+
+    void record(PollOutcome outcome) {
+        feedsPolled.incrementAndGet();
+        newArticles.addAndGet(outcome.newArticles());
+        if (feedId != null) {
+            result = outcome.status();
+            httpStatus = outcome.httpStatus();
+        }
+    }
+
+    void skip(int feeds) {
+        feedsSkipped.addAndGet(feeds);
+    }
+
+    void finish(String failure) {
+        error = failure;
+        finishedAt = Instant.now();
+        state = failure == null ? State.DONE : State.FAILED;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getFeedId() {
+        return feedId;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Instant getRequestedAt() {
+        return requestedAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Time from the request until the job finished, including any wait for a polling permit.
+     */
+    public Long getLatencyMillis() {
+        Instant finished = finishedAt;
+        return finished != null ? Duration.between(requestedAt, finished).toMillis() : null;
+    }
+
+    public int getFeedsPolled() {
+        return feedsPolled.get();
+    }
+
+    public int getFeedsSkipped() {
+        return feedsSkipped.get();
+    }
+
+    public int getNewArticles() {
+        return newArticles.get();
+    }
+
+    public PollOutcome.Status getResult() {
+        return result;
+    }
+
+    public Integer getHttpStatus() {
+        return httpStatus;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
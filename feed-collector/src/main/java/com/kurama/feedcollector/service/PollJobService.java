@@ -0,0 +1,203 @@
+package com.kurama.feedcollector.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kurama.feedcollector.entity.Feed;
+import com.kurama.feedcollector.repository.FeedRepository;
+import com.kurama.feedcollector.service.exception.RateLimitedException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Polls requested through the API, outside the adaptive schedule.
+ * <p>
+ * A trigger returns a {@link PollJob} at once and the poll runs on a virtual thread under the polling engine's
+ * global and per-host limits. Triggers for a feed that is already being polled by a job return that job instead of
+ * starting another poll, and so do sweep triggers while a sweep runs; a sweep skips feeds that a job is polling.
+ * Each poll takes a lease on its feed through {@link FeedLeaser}, so feeds that are being polled on schedule, here or
+ * on another instance, are skipped rather than fetched twice.
+ * Only triggers that start a poll count against the caller's rate limit. Finished jobs can be looked up for
+ * {@code jobs-retention}.
+ */
+@Service
+@Log4j2
+public class PollJobService {
+
+    private final FeedRepository feedRepository;
+    private final PollFeedService pollFeedService;
+    private final FeedPollingEngine pollingEngine;
+    private final FeedLeaser feedLeaser;
+    private final int batchSize;
+    private final double triggersPerSecond;
+    private final int triggerBurst;
+    private final Cache<UUID, PollJob> jobs;
+    private final Cache<String, TokenBucket> buckets;
+    private final Map<UUID, PollJob> inFlightByFeed = new ConcurrentHashMap<>();
+    private final AtomicReference<PollJob> inFlightSweep = new AtomicReference<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public PollJobService(
+            FeedRepository feedRepository,
+            PollFeedService pollFeedService,
+            FeedPollingEngine pollingEngine,
+            FeedLeaser feedLeaser,
+            @Value("${feed.poll.batch-size:1000}") int batchSize,
+            @Value("${feed.poll.trigger.rate-per-minute:6}") double triggersPerMinute,
+            @Value("${feed.poll.trigger.burst:3}") int triggerBurst,
+            @Value("${feed.poll.trigger.jobs-retention:15m}") Duration jobsRetention,
+            @Value("${feed.poll.trigger.max-jobs:10000}") long maxJobs
+    ) {
+        this.feedRepository = feedRepository;
+        this.pollFeedService = pollFeedService;
+        this.pollingEngine = pollingEngine;
+        this.feedLeaser = feedLeaser;
+        this.batchSize = batchSize;
+        this.triggersPerSecond = triggersPerMinute / 60;
+        this.triggerBurst = triggerBurst;
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(jobsRetention)
+                .maximumSize(maxJobs)
+                .build();
+        // Idle callers are forgotten once their bucket would be full again anyway
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofSeconds((long) Math.ceil(triggerBurst / triggersPerSecond)))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    /**
+     * Polls one feed now. Empty if the feed does not exist.
+     *
+     * @param caller key the rate limit is counted against, usually the client address
+     */
+    public Optional<PollJob> triggerFeed(String caller, UUID feedId) {
+        PollJob running = inFlightByFeed.get(feedId);
+        if (running != null) {
+            return Optional.of(running);
+        }
+        acquire(caller);
+        Optional<Feed> feed = feedRepository.findById(feedId);
+        if (feed.isEmpty()) {
+            return Optional.empty();
+        }
+        PollJob job = new PollJob(feedId);
+        PollJob existing = inFlightByFeed.putIfAbsent(feedId, job);
+        if (existing != null) {
+            return Optional.of(existing);
+        }
+        jobs.put(job.getId(), job);
+        executor.execute(() -> runFeed(job, feed.get()));
+        return Optional.of(job);
+    }
+
+    /**
+     * Polls every feed now, in batches of {@code feed.poll.batch-size}.
+     */
+    public PollJob triggerAll(String caller) {
+        PollJob running = inFlightSweep.get();
+        if (running != null) {
+            return running;
+        }
+        acquire(caller);
+        PollJob job = new PollJob(null);
+        PollJob existing = inFlightSweep.compareAndExchange(null, job);
+        if (existing != null) {
+            return existing;
+        }
+        jobs.put(job.getId(), job);
+        executor.execute(() -> runSweep(job));
+        return job;
+    }
+
+    public Optional<PollJob> getJob(UUID jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void acquire(String caller) {
+        long waitNanos = buckets.get(caller, key -> new TokenBucket(triggersPerSecond, triggerBurst)).tryAcquire();
+        if (waitNanos > 0) {
+            throw new RateLimitedException("Too many poll triggers", Duration.ofNanos(waitNanos));
+        }
+    }
+
+    private void runFeed(PollJob job, Feed feed) {
+        job.start();
+        try {
+            if (!feedLeaser.tryLease(feed.getId())) {
+                job.skip(1);
+                job.finish("Feed is already being polled");
+                return;
+            }
+            boolean polled = pollingEngine.pollNow(feed, f -> job.record(pollFeedService.pollFeed(f)));
+            if (!polled) {
+                feedLeaser.release(List.of(feed.getId()));
+                job.skip(1);
+            }
+            job.finish(polled ? null : "No polling permit became available");
+        } catch (RuntimeException e) {
+            log.error("Poll job {} for feed {} failed", job.getId(), feed.getId(), e);
+            job.finish(e.toString());
+        } finally {
+            inFlightByFeed.remove(feed.getId(), job);
+        }
+    }
+
+    private void runSweep(PollJob job) {
+        job.start();
+        try {
+            Pageable page = PageRequest.of(0, batchSize, Sort.by("id"));
+            Slice<Feed> feeds;
+            do {
+                feeds = feedRepository.findAllBy(page);
+                FeedPollingEngine.PollCycleResult result = pollingEngine.runCycle(feeds.getContent(),
+                        feed -> pollForSweep(job, feed));
+                job.skip(result.skipped());
+                page = feeds.nextPageable();
+            } while (feeds.hasNext());
+            job.finish(null);
+        } catch (RuntimeException e) {
+            log.error("Poll job {} for all feeds failed", job.getId(), e);
+            job.finish(e.toString());
+        } finally {
+            inFlightSweep.compareAndSet(job, null);
+        }
+    }
+
+    private void pollForSweep(PollJob job, Feed feed) {
+        if (inFlightByFeed.putIfAbsent(feed.getId(), job) != null) {
+            job.skip(1);
+            return;
+        }
+        if (!feedLeaser.tryLease(feed.getId())) {
+            inFlightByFeed.remove(feed.getId(), job);
+            job.skip(1);
+            return;
+        }
+        try {
+            job.record(pollFeedService.pollFeed(feed));
+        } finally {
+            inFlightByFeed.remove(feed.getId(), job);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.kurama.feedcollector.service;
+
+import java.time.Duration;
+
+/**
+ * Result of polling a single feed, used to update the feed's polling state.
+ *
+ * @param status         what happened on this poll
+ * @param httpStatus     HTTP status of the response, or 0 if no response was received
+ * @param newArticles    number of articles that were not known before this poll
+ * @param etag           validator to send on the next poll
+ * @param lastModified   validator to send on the next poll
+ * @param publisherHint  minimum refresh interval advertised by the feed (RSS ttl, sy:updatePeriod), or null
+ * @param error          why the poll failed, or null
+ */
+public record PollOutcome(
+        Status status,
+        int httpStatus,
+        int newArticles,
+        String etag,
+        String lastModified,
+        Duration publisherHint,
+        String error
+) {
+
+    public enum Status {
+        FETCHED,
+        NOT_MODIFIED,
+        FAILED,
+        // Not attempted because the feed's host circuit is open
+        SKIPPED
+    }
+
+    public static PollOutcome notModified(int httpStatus, String etag, String lastModified) {
+        return new PollOutcome(Status.NOT_MODIFIED, httpStatus, 0, etag, lastModified, null, null);
+    }
+
+    public static PollOutcome failed(int httpStatus, String etag, String lastModified, String error) {
+        return new PollOutcome(Status.FAILED, httpStatus, 0, etag, lastModified, null, error);
+    }
+
+    public static PollOutcome skipped(String etag, String lastModified) {
+        return new PollOutcome(Status.SKIPPED, 0, 0, etag, lastModified, null, null);
+    }
+}
@@ -0,0 +1,113 @@
+package com.kurama.feedcollector.service;
+
+import com.kurama.feedcollector.dto.ArticleSummary;
+import com.kurama.feedcollector.dto.CursorPage;
+import com.kurama.feedcollector.repository.TimelineRepository;
+import com.kurama.feedcollector.service.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Newest articles across a set of feeds, merged into one cursor-paginated stream ordered like a single feed's
+ * articles: publishDate desc, then guid desc. Articles without a publish date have no place in a timeline and are left
+ * out. Guids are compared by code point, the order the {@code "C"} collation of {@code articles.guid} gives the
+ * per-feed queries; with any other order the page boundary could skip or repeat articles that share a publish date.
+ * <p>
+ * A page needs at most {@code size + 1} articles from any one feed, so each feed contributes its newest
+ * {@code size + 1} articles after the cursor, read from its index. Feeds are queried in chunks of {@code chunk-size}
+ * and merged into a bounded heap of the {@code size + 1} best candidates, so memory and work per page do not depend on
+ * how many articles the feeds hold or how deep the page is.
+ */
+@Service
+public class TimelineService {
+
+    private static final Comparator<ArticleSummary> NEWEST_FIRST = Comparator
+            .comparing(ArticleSummary::publishDate)
+            .thenComparing(ArticleSummary::guid, TimelineService::compareCodePoints)
+            .reversed();
+
+    private final TimelineRepository timelineRepository;
+    private final int maxFeeds;
+    private final int chunkSize;
+    private final int maxSize;
+
+    public TimelineService(
+            TimelineRepository timelineRepository,
+            @Value("${feed.timeline.max-feeds:1000}") int maxFeeds,
+            @Value("${feed.timeline.chunk-size:100}") int chunkSize,
+            @Value("${feed.articles.max-scroll-size:100}") int maxSize
+    ) {
+        this.timelineRepository = timelineRepository;
+        this.maxFeeds = maxFeeds;
+        this.chunkSize = chunkSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param cursor the {@code nextCursor} of the previous page, or null for the first page
+     */
+    public CursorPage<ArticleSummary> timeline(Collection<UUID> feedIds, String cursor, int size) {
+        if (feedIds == null || feedIds.isEmpty() || feedIds.size() > maxFeeds) {
+            throw new BadRequestException("Between 1 and " + maxFeeds + " feed ids are required");
+        }
+        if (size < 1 || size > maxSize) {
+            throw new BadRequestException("Page size must be between 1 and " + maxSize);
+        }
+        ArticleCursor after = cursor != null && !cursor.isBlank() ? ArticleCursor.decode(cursor) : null;
+        if (after != null && after.undated()) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        Date publishDate = after != null ? new Date(after.publishDate()) : null;
+        String guid = after != null ? after.guid() : null;
+
+        int wanted = size + 1;
+        // Root is the candidate that sorts last, so it is the one dropped when the heap overflows
+        PriorityQueue<ArticleSummary> best = new PriorityQueue<>(wanted + 1, NEWEST_FIRST.reversed());
+        List<UUID> feeds = new ArrayList<>(new LinkedHashSet<>(feedIds));
+        for (int from = 0; from < feeds.size(); from += chunkSize) {
+            List<UUID> chunk = feeds.subList(from, Math.min(from + chunkSize, feeds.size()));
+            for (ArticleSummary article : timelineRepository.findNewestPerFeed(chunk, publishDate, guid, wanted)) {
+                best.add(article);
+                if (best.size() > wanted) {
+                    best.poll();
+                }
+            }
+        }
+
+        List<ArticleSummary> merged = new ArrayList<>(best);
+        merged.sort(NEWEST_FIRST);
+        boolean hasNext = merged.size() > size;
+        List<ArticleSummary> page = hasNext ? merged.subList(0, size) : merged;
+        return CursorPage.<ArticleSummary>builder()
+                .items(page)
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? ArticleCursor.after(page.get(size - 1)).encode() : null)
+                .build();
+    }
+
+    // String.compareTo orders UTF-16 units, which differs from code point order above U+FFFF
+    static int compareCodePoints(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int x = a.codePointAt(i);
+            int y = b.codePointAt(j);
+            if (x != y) {
+                return Integer.compare(x, y);
+            }
+            i += Character.charCount(x);
+            j += Character.charCount(y);
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+}
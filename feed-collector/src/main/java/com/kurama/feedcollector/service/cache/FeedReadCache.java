@@ -0,0 +1,142 @@
+package com.kurama.feedcollector.service.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kurama.feedcollector.dto.ArticleSummary;
+import com.kurama.feedcollector.dto.CursorPage;
+import com.kurama.feedcollector.dto.PagedResponse;
+import com.kurama.feedcollector.entity.Feed;
+import com.kurama.feedcollector.service.ArticlesIngestedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for the feed list and the first article pages of each feed.
+ * <p>
+ * Article pages only change when new articles are stored, so they are dropped per feed when an
+ * {@link ArticlesIngestedEvent} commits and otherwise live for {@code pages-ttl}. The feed list is dropped when a
+ * feed is added; its {@code lastPolledAt} values may lag by up to {@code feeds-ttl}. Every entry carries an ETag
+ * computed once when it is loaded, so revalidating clients cost neither a query nor serialization.
+ * Hit ratios are exported as {@code cache.gets} for the caches {@code feeds}, {@code article.pages} and
+ * {@code article.scroll}.
+ * <p>
+ * A page whose load was still running when an ingest committed may predate it, so each feed has a generation that
+ * the ingest bumps; a loader that sees the generation move on while it loaded removes its page again. Eviction only
+ * reaches this instance's cache: other instances keep serving their pages, with a valid ETag, until
+ * {@code pages-ttl} runs out, which is why that TTL is kept short.
+ */
+@Component
+@Log4j2
+public class FeedReadCache {
+
+    private static final Boolean ALL_FEEDS = Boolean.TRUE;
+
+    private final ObjectMapper objectMapper;
+    private final int firstPages;
+    private final Cache<Boolean, Cached<List<Feed>>> feeds;
+    private final Cache<PageKey, Cached<PagedResponse<ArticleSummary>>> articlePages;
+    private final Cache<PageKey, Cached<CursorPage<ArticleSummary>>> firstScrollPages;
+    private final Map<UUID, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public FeedReadCache(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${feed.cache.feeds-ttl:30s}") Duration feedsTtl,
+            @Value("${feed.cache.pages-ttl:30s}") Duration pagesTtl,
+            @Value("${feed.cache.pages-max-size:10000}") long pagesMaxSize,
+            @Value("${feed.cache.first-pages:3}") int firstPages
+    ) {
+        this.objectMapper = objectMapper;
+        this.firstPages = firstPages;
+        this.feeds = CaffeineCacheMetrics.monitor(meterRegistry,
+                Caffeine.newBuilder().expireAfterWrite(feedsTtl).recordStats().build(), "feeds");
+        this.articlePages = CaffeineCacheMetrics.monitor(meterRegistry,
+                Caffeine.newBuilder().expireAfterWrite(pagesTtl).maximumSize(pagesMaxSize).recordStats().build(),
+                "article.pages");
+        this.firstScrollPages = CaffeineCacheMetrics.monitor(meterRegistry,
+                Caffeine.newBuilder().expireAfterWrite(pagesTtl).maximumSize(pagesMaxSize).recordStats().build(),
+                "article.scroll");
+    }
+
+    public Cached<List<Feed>> feeds(Supplier<List<Feed>> loader) {
+        return feeds.get(ALL_FEEDS, key -> cached(loader.get()));
+    }
+
+    /**
+     * Offset pages below {@code first-pages} are cached; deeper pages are loaded every time.
+     */
+    public Cached<PagedResponse<ArticleSummary>> articlePage(UUID feedId, int page, int size,
+                                                             Supplier<PagedResponse<ArticleSummary>> loader) {
+        if (page >= firstPages) {
+            return cached(loader.get());
+        }
+        return readThrough(articlePages, new PageKey(feedId, page, size), loader);
+    }
+
+    /**
+     * The first cursor page of a feed; later cursor pages are cheap keyset reads and are not cached.
+     */
+    public Cached<CursorPage<ArticleSummary>> firstScrollPage(UUID feedId, int size,
+                                                              Supplier<CursorPage<ArticleSummary>> loader) {
+        return readThrough(firstScrollPages, new PageKey(feedId, 0, size), loader);
+    }
+
+    public void evictFeeds() {
+        feeds.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticlesIngested(ArticlesIngestedEvent event) {
+        // Bumped before evicting, so a load that stores its page after the eviction sees it and takes the page back
+        generation(event.feedId()).incrementAndGet();
+        articlePages.asMap().keySet().removeIf(key -> key.feedId().equals(event.feedId()));
+        firstScrollPages.asMap().keySet().removeIf(key -> key.feedId().equals(event.feedId()));
+        log.debug("Evicted cached article pages of feed {} after {} new articles", event.feedId(), event.count());
+    }
+
+    private <T> Cached<T> readThrough(Cache<PageKey, Cached<T>> cache, PageKey key, Supplier<T> loader) {
+        AtomicLong generation = generation(key.feedId());
+        long before = generation.get();
+        Cached<T> page = cache.get(key, k -> cached(loader.get()));
+        if (generation.get() != before) {
+            cache.asMap().remove(key, page);
+        }
+        return page;
+    }
+
+    private AtomicLong generation(UUID feedId) {
+        return generations.computeIfAbsent(feedId, id -> new AtomicLong());
+    }
+
+    private <T> Cached<T> cached(T value) {
+        try {
+            return new Cached<>(value, '"' + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(value)) + '"');
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot compute ETag", e);
+        }
+    }
+
+    /**
+     * A cached response body and the strong ETag of its JSON form.
+     */
+    public record Cached<T>(T body, String etag) {
+    }
+
+    private record PageKey(UUID feedId, int page, int size) {
+    }
+}
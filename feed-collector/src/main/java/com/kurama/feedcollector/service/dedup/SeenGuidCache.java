@@ -0,0 +1,167 @@
+package com.kurama.feedcollector.service.dedup;
+
+import com.kurama.feedcollector.repository.ArticleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Answers "have we stored this GUID before?" without going to the database for most GUIDs.
+ * <p>
+ * Lookups go through three layers: a small per-feed LRU of recently seen GUIDs, a Bloom filter over every GUID
+ * in the {@code articles} table (warmed at startup), and finally a {@code guid}-only query for the GUIDs the
+ * Bloom filter cannot rule out. Until the Bloom filter is warm every LRU miss goes to the database.
+ */
+@Component
+@Log4j2
+public class SeenGuidCache {
+
+    private final ArticleRepository articleRepository;
+    private final int recentPerFeed;
+    private final long expectedInsertions;
+    private final BloomFilter bloomFilter;
+    private final Map<UUID, Set<String>> recentByFeed = new ConcurrentHashMap<>();
+    private volatile boolean warm;
+
+    private final Counter lruHits;
+    private final Counter bloomNegatives;
+    private final Counter dbHits;
+    private final Counter falsePositives;
+    private final Counter coldMisses;
+
+    public SeenGuidCache(
+            ArticleRepository articleRepository,
+            MeterRegistry meterRegistry,
+            @Value("${feed.dedup.recent-per-feed:256}") int recentPerFeed,
+            @Value("${feed.dedup.bloom.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${feed.dedup.bloom.false-positive-rate:0.01}") double falsePositiveRate
+    ) {
+        this.articleRepository = articleRepository;
+        this.recentPerFeed = recentPerFeed;
+        this.expectedInsertions = expectedInsertions;
+        this.bloomFilter = new BloomFilter(expectedInsertions, falsePositiveRate);
+        this.lruHits = lookupCounter(meterRegistry, "lru_hit");
+        this.bloomNegatives = lookupCounter(meterRegistry, "bloom_negative");
+        this.dbHits = lookupCounter(meterRegistry, "db_hit");
+        this.falsePositives = lookupCounter(meterRegistry, "false_positive");
+        this.coldMisses = lookupCounter(meterRegistry, "cold_miss");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        AtomicLong count = new AtomicLong();
+        try (Stream<String> guids = articleRepository.streamAllGuids()) {
+            guids.forEach(guid -> {
+                bloomFilter.put(guid);
+                count.incrementAndGet();
+            });
+        }
+        warm = true;
+        log.info("Warmed GUID Bloom filter with {} GUIDs in {} ms", count.get(), System.currentTimeMillis() - start);
+        if (count.get() > expectedInsertions) {
+            log.warn("Bloom filter holds {} GUIDs but was sized for {}; raise feed.dedup.bloom.expected-insertions",
+                    count.get(), expectedInsertions);
+        }
+    }
+
+    /**
+     * Returns the subset of {@code guids} that is already stored.
+     */
+    public Set<String> findKnown(UUID feedId, Collection<String> guids) {
+        Set<String> recent = recent(feedId);
+        Set<String> known = new HashSet<>();
+        List<String> uncertain = new ArrayList<>();
+        for (String guid : guids) {
+            if (recent.contains(guid)) {
+                lruHits.increment();
+                known.add(guid);
+            } else if (warm && !bloomFilter.mightContain(guid)) {
+                bloomNegatives.increment();
+            } else {
+                uncertain.add(guid);
+            }
+        }
+        if (uncertain.isEmpty()) {
+            return known;
+        }
+
+        Set<String> existing = new HashSet<>(articleRepository.findExistingGuids(uncertain));
+        for (String guid : uncertain) {
+            if (existing.contains(guid)) {
+                dbHits.increment();
+                known.add(guid);
+            } else if (warm) {
+                falsePositives.increment();
+            } else {
+                coldMisses.increment();
+            }
+        }
+        recent.addAll(existing);
+        return known;
+    }
+
+    /**
+     * True if the GUID is among the feed's recently seen GUIDs. Never touches the Bloom filter or the database
+     * after the first call for a feed, so it is cheap enough to call for every parsed entry.
+     */
+    public boolean isRecentlySeen(UUID feedId, String guid) {
+        return recent(feedId).contains(guid);
+    }
+
+    /**
+     * Records GUIDs that are now stored.
+     */
+    public void markKnown(UUID feedId, Collection<String> guids) {
+        Set<String> recent = recent(feedId);
+        for (String guid : guids) {
+            bloomFilter.put(guid);
+            recent.add(guid);
+        }
+    }
+
+    // Seeded once per feed from the newest stored articles, then maintained in memory.
+    // The query runs outside computeIfAbsent so a virtual thread never blocks on I/O while holding the map's lock.
+    private Set<String> recent(UUID feedId) {
+        Set<String> recent = recentByFeed.get(feedId);
+        if (recent != null) {
+            return recent;
+        }
+        Set<String> seeded = Collections.synchronizedSet(Collections.newSetFromMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > recentPerFeed;
+            }
+        }));
+        seeded.addAll(articleRepository.findRecentGuids(feedId, Limit.of(recentPerFeed)));
+        Set<String> existing = recentByFeed.putIfAbsent(feedId, seeded);
+        return existing != null ? existing : seeded;
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("feed.dedup.lookups")
+                .description("GUID dedup lookups by the layer that answered them")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,7 @@
+package com.kurama.feedcollector.service.exception;
+
+public class FeedParseException extends RuntimeException {
+    public FeedParseException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
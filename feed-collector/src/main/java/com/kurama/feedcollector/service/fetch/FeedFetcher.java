@@ -0,0 +1,301 @@
+package com.kurama.feedcollector.service.fetch;
+
+import jakarta.annotation.PreDestroy;
+import org.brotli.dec.BrotliInputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Fetches feed documents over one shared {@link HttpClient}.
+ * <p>
+ * The client keeps idle connections per host and reuses TLS sessions, so feeds on the same host share connections;
+ * HTTPS hosts that offer HTTP/2 get a single multiplexed connection. Cleartext requests stay on HTTP/1.1 because
+ * an {@code h2c} upgrade attempt confuses some servers. Redirects are followed here rather than by the client so
+ * that a chain of permanent redirects can be reported and the feed's stored URL moved. Bodies are requested
+ * compressed, decoded on the fly and cut off at {@code max-body-size} decoded bytes.
+ * <p>
+ * {@code request-timeout} bounds the whole fetch, redirects and body included. The client's own timeout only covers
+ * the wait for response headers, so a body that is still being read at the deadline is closed under the reader,
+ * which then fails with an {@link HttpTimeoutException}.
+ */
+@Component
+public class FeedFetcher {
+
+    private static final Set<Integer> REDIRECTS = Set.of(301, 302, 303, 307, 308);
+    private static final Set<Integer> PERMANENT_REDIRECTS = Set.of(301, 308);
+    private static final String ACCEPT =
+            "application/rss+xml, application/atom+xml, application/xml;q=0.9, text/xml;q=0.9, */*;q=0.8";
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient client;
+    private final String userAgent;
+    private final Duration requestTimeout;
+    private final long maxBodyBytes;
+    private final int maxRedirects;
+
+    public FeedFetcher(
+            @Value("${feed.http.user-agent:KuramaFeedCollector/0.0.1}") String userAgent,
+            @Value("${feed.http.connect-timeout:5s}") Duration connectTimeout,
+            @Value("${feed.http.request-timeout:15s}") Duration requestTimeout,
+            @Value("${feed.http.max-body-size:10MB}") DataSize maxBodySize,
+            @Value("${feed.http.max-redirects:5}") int maxRedirects
+    ) {
+        this.userAgent = userAgent;
+        this.requestTimeout = requestTimeout;
+        this.maxBodyBytes = maxBodySize.toBytes();
+        this.maxRedirects = maxRedirects;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(connectTimeout)
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * Sends a conditional GET for the feed, following redirects. The body of the returned response is only open for
+     * a 200 and must be closed by the caller.
+     */
+    public FetchResponse fetch(String url, String etag, String lastModified) throws IOException, InterruptedException {
+        URI uri = URI.create(url);
+        long deadline = System.nanoTime() + requestTimeout.toNanos();
+        String permanentUrl = null;
+        boolean permanentSoFar = true;
+        for (int redirects = 0; ; redirects++) {
+            HttpResponse<InputStream> response = client.send(request(uri, etag, lastModified, deadline),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            int status = response.statusCode();
+            if (!REDIRECTS.contains(status)) {
+                return response(uri, permanentUrl, response, deadline);
+            }
+            response.body().close();
+            if (redirects == maxRedirects) {
+                throw new IOException("More than " + maxRedirects + " redirects from " + url);
+            }
+            String location = response.headers().firstValue("Location")
+                    .orElseThrow(() -> new IOException("Redirect without Location from " + response.uri()));
+            uri = uri.resolve(location);
+            // Only the part of the chain that is permanent from the start may replace the stored URL
+            permanentSoFar &= PERMANENT_REDIRECTS.contains(status);
+            if (permanentSoFar) {
+                permanentUrl = uri.toString();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        client.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private HttpRequest request(URI uri, String etag, String lastModified, long deadline) throws IOException {
+        String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase(Locale.ROOT) : "";
+        if (!scheme.equals("http") && !scheme.equals("https")) {
+            throw new IOException("Unsupported feed URL: " + uri);
+        }
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            throw new HttpTimeoutException("Feed not fetched within " + requestTimeout + ": " + uri);
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .GET()
+                .timeout(Duration.ofNanos(remaining))
+                .header("User-Agent", userAgent)
+                .header("Accept", ACCEPT)
+                .header("Accept-Encoding", "gzip, br, deflate");
+        if (scheme.equals("http")) {
+            request.version(HttpClient.Version.HTTP_1_1);
+        }
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            request.header("If-Modified-Since", lastModified);
+        }
+        return request.build();
+    }
+
+    private FetchResponse response(URI uri, String permanentUrl, HttpResponse<InputStream> response, long deadline)
+            throws IOException {
+        HttpHeaders headers = response.headers();
+        InputStream body = null;
+        if (response.statusCode() == 200) {
+            if (headers.firstValueAsLong("Content-Length").orElse(0) > maxBodyBytes) {
+                response.body().close();
+                throw new IOException("Feed body larger than " + maxBodyBytes + " bytes: " + uri);
+            }
+            // The deadline goes under the decoder, whose constructor may already block reading a header
+            InputStream raw = new DeadlineInputStream(response.body(), deadline, requestTimeout);
+            body = new CappedInputStream(decode(headers.firstValue("Content-Encoding").orElse(""), raw), maxBodyBytes);
+        } else {
+            response.body().close();
+        }
+        return new FetchResponse(response.statusCode(), uri.toString(), permanentUrl,
+                headers.firstValue("Content-Type").orElse(null),
+                headers.firstValue("ETag").orElse(null),
+                headers.firstValue("Last-Modified").orElse(null),
+                body);
+    }
+
+    private static InputStream decode(String contentEncoding, InputStream body) throws IOException {
+        try {
+            return switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+                case "", "identity" -> body;
+                case "gzip", "x-gzip" -> new GZIPInputStream(body, 8192);
+                case "br" -> new BrotliInputStream(body);
+                case "deflate" -> new InflaterInputStream(body);
+                default -> throw new IOException("Unsupported Content-Encoding: " + contentEncoding);
+            };
+        } catch (IOException e) {
+            body.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Result of a fetch.
+     *
+     * @param url          URL the response came from, after redirects
+     * @param permanentUrl where the feed has permanently moved, if the redirect chain started with permanent redirects
+     * @param body         decoded body of a 200 response, otherwise null
+     */
+    public record FetchResponse(
+            int status,
+            String url,
+            String permanentUrl,
+            String contentType,
+            String etag,
+            String lastModified,
+            InputStream body
+    ) implements Closeable {
+
+        @Override
+        public void close() throws IOException {
+            if (body != null) {
+                body.close();
+            }
+        }
+    }
+
+    // Closes the body at the deadline, which also wakes a read blocked on a connection that stopped sending
+    private static final class DeadlineInputStream extends FilterInputStream {
+
+        private final Duration timeout;
+        private final CompletableFuture<Void> expiry;
+        private volatile boolean expired;
+
+        DeadlineInputStream(InputStream in, long deadline, Duration timeout) {
+            super(in);
+            this.timeout = timeout;
+            this.expiry = CompletableFuture.runAsync(this::expire, CompletableFuture.delayedExecutor(
+                    Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return check(super.read());
+            } catch (IOException e) {
+                throw timeoutOr(e);
+            }
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            try {
+                return check(super.read(buffer, offset, length));
+            } catch (IOException e) {
+                throw timeoutOr(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            expiry.cancel(false);
+            super.close();
+        }
+
+        private int check(int result) throws IOException {
+            if (expired) {
+                throw timeout();
+            }
+            return result;
+        }
+
+        private IOException timeoutOr(IOException e) {
+            return expired ? timeout() : e;
+        }
+
+        private HttpTimeoutException timeout() {
+            return new HttpTimeoutException("Feed body not read within " + timeout);
+        }
+
+        private void expire() {
+            expired = true;
+            try {
+                in.close();
+            } catch (IOException ignored) {
+                // The reader fails with the timeout either way
+            }
+        }
+    }
+
+    // Fails the read instead of buffering an unbounded document
+    private static final class CappedInputStream extends FilterInputStream {
+
+        private final long limit;
+        private long count;
+
+        CappedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws IOException {
+            count += n;
+            if (count > limit) {
+                throw new IOException("Feed body larger than " + limit + " bytes");
+            }
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.kurama.feedcollector.service.live;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kurama.feedcollector.entity.Article;
+import com.kurama.feedcollector.service.ArticleMapper;
+import com.kurama.feedcollector.service.ArticlesIngestedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process fan-out of newly stored articles to Server-Sent Events subscribers of a feed.
+ * <p>
+ * An open stream holds no thread: the request runs asynchronously and a subscriber is only an emitter plus a bounded
+ * queue of pending events. When new articles of a feed commit, each is serialized to JSON once and offered to every
+ * subscriber of that feed. A subscriber's queue is drained by at most one virtual thread at a time, so a slow client
+ * only ever blocks its own writer. A subscriber whose queue is full is a slow consumer and is disconnected; clients
+ * reconnect through {@code EventSource}'s automatic retry and catch up with the articles endpoints. Idle streams get a
+ * comment every {@code heartbeat-millis} so proxies keep them open and dead connections are noticed.
+ */
+@Component
+@Log4j2
+public class ArticleStreamHub {
+
+    private static final String EVENT_NAME = "article";
+    private static final Message HEARTBEAT = new Message(null, null);
+
+    private final ObjectMapper objectMapper;
+    private final ArticleMapper articleMapper;
+    private final Executor writer;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final Duration timeout;
+    private final Map<UUID, Set<Subscriber>> subscribersByFeed = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final Counter sentCounter;
+    private final Counter droppedCounter;
+
+    @Autowired
+    public ArticleStreamHub(
+            ObjectMapper objectMapper,
+            ArticleMapper articleMapper,
+            MeterRegistry meterRegistry,
+            @Value("${feed.stream.buffer-size:256}") int bufferSize,
+            @Value("${feed.stream.max-subscribers:50000}") int maxSubscribers,
+            @Value("${feed.stream.timeout:30m}") Duration timeout
+    ) {
+        this(objectMapper, articleMapper, meterRegistry, bufferSize, maxSubscribers, timeout,
+                Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    ArticleStreamHub(ObjectMapper objectMapper, ArticleMapper articleMapper, MeterRegistry meterRegistry,
+                     int bufferSize, int maxSubscribers, Duration timeout, Executor writer) {
+        this.objectMapper = objectMapper;
+        this.articleMapper = articleMapper;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout;
+        this.writer = writer;
+        Gauge.builder("feed.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open live article streams")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("feed.stream.events")
+                .tag("outcome", "sent")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("feed.stream.events")
+                .tag("outcome", "dropped")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of the feed's new articles, or returns empty when {@code max-subscribers} streams are already
+     * open.
+     */
+    public Optional<SseEmitter> subscribe(UUID feedId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return Optional.empty();
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(feedId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        subscribersByFeed.compute(feedId, (id, subscribers) -> {
+            Set<Subscriber> feedSubscribers = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            feedSubscribers.add(subscriber);
+            return feedSubscribers;
+        });
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        return Optional.of(emitter);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticlesIngested(ArticlesIngestedEvent event) {
+        Set<Subscriber> subscribers = subscribersByFeed.get(event.feedId());
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+        List<Message> messages = new ArrayList<>(event.articles().size());
+        for (Article article : event.articles()) {
+            try {
+                messages.add(new Message(article.getGuid(), objectMapper.writeValueAsString(articleMapper.toDto(article))));
+            } catch (JsonProcessingException e) {
+                log.error("Cannot serialize article {} for live streams", article.getGuid(), e);
+            }
+        }
+        for (Subscriber subscriber : subscribers) {
+            for (Message message : messages) {
+                if (!offer(subscriber, message)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${feed.stream.heartbeat-millis:30000}",
+            fixedDelayString = "${feed.stream.heartbeat-millis:30000}")
+    public void heartbeat() {
+        for (Set<Subscriber> subscribers : subscribersByFeed.values()) {
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.queue().isEmpty()) {
+                    offer(subscriber, HEARTBEAT);
+                }
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribersByFeed.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter().complete()));
+        if (writer instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    private boolean offer(Subscriber subscriber, Message message) {
+        if (!subscriber.queue().offer(message)) {
+            droppedCounter.increment();
+            log.debug("Dropping slow live stream subscriber of feed {}", subscriber.feedId());
+            remove(subscriber);
+            subscriber.emitter().complete();
+            return false;
+        }
+        if (subscriber.draining().compareAndSet(false, true)) {
+            writer.execute(() -> drain(subscriber));
+        }
+        return true;
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            do {
+                Message message;
+                while ((message = subscriber.queue().poll()) != null) {
+                    subscriber.emitter().send(message.event());
+                    if (message != HEARTBEAT) {
+                        sentCounter.increment();
+                    }
+                }
+                subscriber.draining().set(false);
+                // An offer that raced with the reset above left its message for this writer
+            } while (!subscriber.queue().isEmpty() && subscriber.draining().compareAndSet(false, true));
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the stream was closed; the container reports the former through onError too
+            log.debug("Closing live stream of feed {}: {}", subscriber.feedId(), e.toString());
+            remove(subscriber);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.closed().compareAndSet(false, true)) {
+            return;
+        }
+        subscriberCount.decrementAndGet();
+        subscribersByFeed.computeIfPresent(subscriber.feedId(), (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private record Subscriber(UUID feedId, SseEmitter emitter, BlockingQueue<Message> queue,
+                              AtomicBoolean draining, AtomicBoolean closed) {
+
+        Subscriber(UUID feedId, SseEmitter emitter, BlockingQueue<Message> queue) {
+            this(feedId, emitter, queue, new AtomicBoolean(), new AtomicBoolean());
+        }
+    }
+
+    // Serialized once and shared by every subscriber; a null id marks a heartbeat
+    private record Message(String id, String json) {
+
+        SseEmitter.SseEventBuilder event() {
+            if (id == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().id(id).name(EVENT_NAME).data(json, MediaType.APPLICATION_JSON);
+        }
+    }
+}
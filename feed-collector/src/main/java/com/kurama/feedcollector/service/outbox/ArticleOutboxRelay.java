@@ -0,0 +1,244 @@
+package com.kurama.feedcollector.service.outbox;
+
+import com.kurama.feedcollector.entity.Article;
+import com.kurama.feedcollector.entity.ArticleOutbox;
+import com.kurama.feedcollector.repository.ArticleOutboxRepository;
+import com.kurama.feedcollector.repository.ArticleRepository;
+import com.kurama.feedcollector.service.ArticleMapper;
+import com.kurama.feedcollector.service.KafkaArticleProducerService;
+import com.kurama.schema.ArticleMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drains {@code article_outbox} to the {@code NEW_ARTICLES} topic.
+ * <p>
+ * Each round claims a batch of due rows with {@code FOR UPDATE SKIP LOCKED} and, in the same short transaction,
+ * pushes their {@code next_attempt_at} past the longest the round can take, so other relays leave them alone once the
+ * row locks are gone. The batch is then sent outside any transaction and the relay waits for the broker to
+ * acknowledge it; the wait is the backpressure, as the next batch is not claimed until the previous one is
+ * acknowledged. A second transaction settles the rows: acknowledged rows record their partition and offset, failed
+ * rows are retried with exponential backoff. A send that throws after blocking {@code max.block.ms}, for example
+ * while the broker is unreachable, fails the rest of the batch without trying it. A crash before the rows are settled
+ * re-sends the batch once the claim runs out, so delivery is at-least-once and consumers must tolerate duplicate
+ * GUIDs.
+ */
+@Component
+@Log4j2
+public class ArticleOutboxRelay {
+
+    private final ArticleOutboxRepository outboxRepository;
+    private final ArticleRepository articleRepository;
+    private final KafkaArticleProducerService kafkaArticleProducerService;
+    private final ArticleMapper articleMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration sendTimeout;
+    private final Duration claimTimeout;
+    private final Duration minBackoff;
+    private final Duration maxBackoff;
+    private final Duration retention;
+
+    private final Counter published;
+    private final Counter failed;
+
+    public ArticleOutboxRelay(
+            ArticleOutboxRepository outboxRepository,
+            ArticleRepository articleRepository,
+            KafkaArticleProducerService kafkaArticleProducerService,
+            ArticleMapper articleMapper,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${feed.outbox.batch-size:500}") int batchSize,
+            @Value("${feed.outbox.max-batches-per-run:20}") int maxBatchesPerRun,
+            @Value("${feed.outbox.send-timeout:30s}") Duration sendTimeout,
+            @Value("${feed.kafka.producer.max-block-ms:5000}") long maxBlockMillis,
+            @Value("${feed.outbox.min-backoff:1s}") Duration minBackoff,
+            @Value("${feed.outbox.max-backoff:5m}") Duration maxBackoff,
+            @Value("${feed.outbox.retention:24h}") Duration retention
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.articleRepository = articleRepository;
+        this.kafkaArticleProducerService = kafkaArticleProducerService;
+        this.articleMapper = articleMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.sendTimeout = sendTimeout;
+        // A round blocks on one send at most, then waits out sendTimeout; twice that leaves room for the database
+        this.claimTimeout = sendTimeout.plusMillis(maxBlockMillis).multipliedBy(2);
+        this.minBackoff = minBackoff;
+        this.maxBackoff = maxBackoff;
+        this.retention = retention;
+        this.published = relayCounter(meterRegistry, "published");
+        this.failed = relayCounter(meterRegistry, "failed");
+        Gauge.builder("feed.outbox.pending", outboxRepository, ArticleOutboxRepository::countPending)
+                .description("Outbox rows not yet acknowledged by Kafka")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${feed.outbox.poll-millis:1000}", fixedDelayString = "${feed.outbox.poll-millis:1000}")
+    public void relay() {
+        // Keep going while batches come back full, but yield now and then so a large backlog cannot monopolise the task
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            if (relayBatch() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Claims, sends and settles one batch, each database step in its own transaction. Returns the number of rows
+     * claimed.
+     */
+    int relayBatch() {
+        Instant now = Instant.now();
+        Claim claim = transactionTemplate.execute(status -> claim(now));
+        if (claim == null || claim.rows().isEmpty()) {
+            return 0;
+        }
+        List<ArticleOutbox> batch = claim.rows();
+
+        List<CompletableFuture<SendResult<String, ArticleMessage>>> sends = new ArrayList<>(batch.size());
+        RuntimeException blocked = null;
+        for (ArticleOutbox row : batch) {
+            Article article = claim.articles().get(row.getArticleGuid());
+            if (blocked != null) {
+                sends.add(CompletableFuture.failedFuture(blocked));
+            } else if (article == null) {
+                sends.add(CompletableFuture.failedFuture(new IllegalStateException("Article no longer exists")));
+            } else {
+                try {
+                    sends.add(kafkaArticleProducerService.publish(articleMapper.toMessage(article)));
+                } catch (RuntimeException e) {
+                    // The producer throws once it blocked max.block.ms on metadata or a full buffer; every further
+                    // send would block just as long
+                    blocked = e;
+                    sends.add(CompletableFuture.failedFuture(e));
+                }
+            }
+        }
+
+        // Wait for the whole batch with one deadline; sends that have not completed by then count as failed
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        List<Sent> results = new ArrayList<>(batch.size());
+        for (CompletableFuture<SendResult<String, ArticleMessage>> send : sends) {
+            try {
+                results.add(new Sent(send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+                        .getRecordMetadata(), null));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results.add(new Sent(null, e));
+            } catch (ExecutionException e) {
+                results.add(new Sent(null, e.getCause()));
+            } catch (TimeoutException e) {
+                results.add(new Sent(null, e));
+            }
+        }
+
+        Integer settled = transactionTemplate.execute(status -> settle(batch, results, now));
+        int ok = settled != null ? settled : 0;
+        published.increment(ok);
+        failed.increment(batch.size() - ok);
+        if (ok < batch.size()) {
+            log.warn("Relayed {} of {} outbox messages to Kafka; the rest will be retried", ok, batch.size());
+        } else {
+            log.debug("Relayed {} outbox messages to Kafka", ok);
+        }
+        return batch.size();
+    }
+
+    @Scheduled(fixedDelayString = "${feed.outbox.purge-millis:3600000}")
+    public void purgePublished() {
+        int deleted = outboxRepository.deletePublishedBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Purged {} published outbox rows", deleted);
+        }
+    }
+
+    private Claim claim(Instant now) {
+        List<ArticleOutbox> rows = outboxRepository.claimBatch(now, batchSize);
+        if (rows.isEmpty()) {
+            return new Claim(rows, Map.of());
+        }
+        Instant claimedUntil = now.plus(claimTimeout);
+        rows.forEach(row -> row.setNextAttemptAt(claimedUntil));
+        Map<String, Article> articles = articleRepository
+                .findAllById(rows.stream().map(ArticleOutbox::getArticleGuid).toList())
+                .stream()
+                .collect(Collectors.toMap(Article::getGuid, Function.identity()));
+        return new Claim(rows, articles);
+    }
+
+    // Returns how many rows were acknowledged
+    private int settle(List<ArticleOutbox> batch, List<Sent> results, Instant now) {
+        Map<Long, ArticleOutbox> rows = outboxRepository.findAllById(batch.stream().map(ArticleOutbox::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(ArticleOutbox::getId, Function.identity()));
+        int ok = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            ArticleOutbox row = rows.get(batch.get(i).getId());
+            if (row == null) {
+                continue;
+            }
+            Sent sent = results.get(i);
+            if (sent.error() == null) {
+                RecordMetadata metadata = sent.metadata();
+                row.setPublishedAt(Instant.now());
+                row.setKafkaPartition(metadata.partition());
+                row.setKafkaOffset(metadata.offset());
+                ok++;
+            } else {
+                reschedule(row, now, sent.error());
+            }
+        }
+        return ok;
+    }
+
+    private void reschedule(ArticleOutbox row, Instant now, Throwable cause) {
+        int attempts = row.getAttempts() + 1;
+        row.setAttempts(attempts);
+        row.setNextAttemptAt(now.plus(backoff(attempts)));
+        row.setLastError(String.valueOf(cause));
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = minBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private record Claim(List<ArticleOutbox> rows, Map<String, Article> articles) {
+    }
+
+    // Where the broker stored the record, or why it did not
+    private record Sent(RecordMetadata metadata, Throwable error) {
+    }
+
+    private static Counter relayCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("feed.outbox.relayed")
+                .description("Outbox messages sent to Kafka by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,28 @@
+package com.kurama.feedcollector.service.parser;
+
+import com.kurama.feedcollector.entity.Article;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Turns a fetched feed document into {@link Article}s.
+ * <p>
+ * Implementations are selected with {@code feed.parser.mode} ({@code rome} or {@code stax}).
+ */
+public interface FeedParser {
+
+    /**
+     * Hands the entries of the feed to {@code sink} in document order and stops as soon as the sink returns false.
+     *
+     * @param body        raw response body
+     * @param contentType Content-Type header of the response, may carry the charset; may be null
+     * @param feedId      id of the feed the articles belong to
+     * @param sink        receives every article; returning false stops parsing
+     * @return minimum refresh interval advertised by the feed (RSS ttl, sy:updatePeriod), or null
+     */
+    Duration parse(InputStream body, String contentType, UUID feedId, Predicate<Article> sink) throws IOException;
+}
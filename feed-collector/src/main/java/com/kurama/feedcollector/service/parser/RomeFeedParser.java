@@ -0,0 +1,106 @@
+package com.kurama.feedcollector.service.parser;
+
+import com.kurama.feedcollector.entity.Article;
+import com.kurama.feedcollector.service.exception.FeedParseException;
+import com.rometools.rome.feed.module.SyModule;
+import com.rometools.rome.feed.rss.Channel;
+import com.rometools.rome.feed.synd.SyndEntry;
+import com.rometools.rome.feed.synd.SyndFeed;
+import com.rometools.rome.io.FeedException;
+import com.rometools.rome.io.SyndFeedInput;
+import com.rometools.rome.io.XmlReader;
+import org.jdom2.Element;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Builds the whole document with ROME and maps its entries. Simple and lenient, but holds the full JDOM tree in memory.
+ */
+@Component
+@ConditionalOnProperty(name = "feed.parser.mode", havingValue = "rome", matchIfMissing = true)
+public class RomeFeedParser implements FeedParser {
+
+    private final int maxEntries;
+
+    public RomeFeedParser(@Value("${feed.parser.max-entries:500}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public Duration parse(InputStream body, String contentType, UUID feedId, Predicate<Article> sink) throws IOException {
+        SyndFeed feed;
+        // XmlReader resolves the charset from the Content-Type header, the BOM and the XML prolog
+        try (XmlReader reader = new XmlReader(body, contentType, true)) {
+            SyndFeedInput input = new SyndFeedInput();
+            input.setPreserveWireFeed(true);
+            feed = input.build(reader);
+        } catch (FeedException e) {
+            throw new FeedParseException("Invalid feed document", e);
+        }
+
+        int count = 0;
+        for (SyndEntry entry : feed.getEntries()) {
+            if (count++ >= maxEntries || !sink.test(toArticle(entry, feedId))) {
+                break;
+            }
+        }
+        return publisherHint(feed);
+    }
+
+    private static Article toArticle(SyndEntry entry, UUID feedId) {
+        return Article.builder()
+                .title(entry.getTitle())
+                .link(entry.getLink())
+                .description(entry.getDescription() != null ? entry.getDescription().getValue() : null)
+                // ROME reports a missing author as ""
+                .author(entry.getAuthor() != null && !entry.getAuthor().isBlank() ? entry.getAuthor() : null)
+                .publishDate(entry.getPublishedDate())
+                .guid(entry.getUri())
+                .content(entry.getContents() != null && !entry.getContents().isEmpty() ? entry.getContents().get(0).getValue() : null)
+                .category(entry.getCategories() != null && !entry.getCategories().isEmpty() ? entry.getCategories().get(0).getName() : null)
+                .feedId(feedId)
+                .build();
+    }
+
+    // RSS <ttl> is in minutes; sy:updatePeriod/updateFrequency means "updates N times per period"
+    private static Duration publisherHint(SyndFeed feed) {
+        Duration ttl = feed.originalWireFeed() instanceof Channel channel && channel.getTtl() > 0
+                ? Duration.ofMinutes(channel.getTtl())
+                : null;
+        Duration sy;
+        if (feed.getModule(SyModule.URI) instanceof SyModule module) {
+            sy = SyndicationHints.updateInterval(module.getUpdatePeriod(), module.getUpdateFrequency());
+        } else {
+            // ROME only maps the sy module for RSS 1.0 and Atom; RSS 2.0 keeps it as foreign markup
+            List<Element> markup = feed.originalWireFeed() != null ? feed.originalWireFeed().getForeignMarkup() : List.of();
+            sy = SyndicationHints.updateInterval(
+                    foreignText(markup, "updatePeriod"),
+                    parseInt(foreignText(markup, "updateFrequency")));
+        }
+        return SyndicationHints.longest(ttl, sy);
+    }
+
+    private static String foreignText(List<Element> markup, String name) {
+        return markup.stream()
+                .filter(element -> SyModule.URI.equals(element.getNamespaceURI()) && name.equals(element.getName()))
+                .map(Element::getTextTrim)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static int parseInt(String value) {
+        try {
+            return value != null ? Integer.parseInt(value) : 1;
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+}
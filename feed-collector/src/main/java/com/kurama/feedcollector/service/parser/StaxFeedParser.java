@@ -0,0 +1,292 @@
+package com.kurama.feedcollector.service.parser;
+
+import com.kurama.feedcollector.entity.Article;
+import com.kurama.feedcollector.service.exception.FeedParseException;
+import com.rometools.rome.io.impl.DateParser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Pull-parses RSS 0.9x/2.0, RSS 1.0 and Atom with StAX and emits one {@link Article} per entry as soon as the entry
+ * is closed. Only the entry being read is held in memory, and parsing stops as soon as the sink declines an article,
+ * so the rest of a large document is never read.
+ */
+@Component
+@ConditionalOnProperty(name = "feed.parser.mode", havingValue = "stax")
+public class StaxFeedParser implements FeedParser {
+
+    private static final String ATOM_NS = "http://www.w3.org/2005/Atom";
+    private static final String ATOM_03_NS = "http://purl.org/atom/ns#";
+    private static final String RSS_10_NS = "http://purl.org/rss/1.0/";
+    private static final String DC_NS = "http://purl.org/dc/elements/1.1/";
+    private static final String CONTENT_NS = "http://purl.org/rss/1.0/modules/content/";
+    private static final String SY_NS = "http://purl.org/rss/1.0/modules/syndication/";
+
+    private final XMLInputFactory factory;
+    private final int maxEntries;
+
+    public StaxFeedParser(@Value("${feed.parser.max-entries:500}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        factory = XMLInputFactory.newFactory();
+        // Feeds come from arbitrary hosts: no DTDs, no external entities
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    @Override
+    public Duration parse(InputStream body, String contentType, UUID feedId, Predicate<Article> sink) {
+        Charset charset = charsetOf(contentType);
+        try {
+            // Without an explicit HTTP charset the reader detects the encoding from the BOM and the XML prolog
+            XMLStreamReader reader = charset != null
+                    ? factory.createXMLStreamReader(body, charset.name())
+                    : factory.createXMLStreamReader(body);
+            try {
+                return readFeed(reader, feedId, sink);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new FeedParseException("Invalid feed document", e);
+        }
+    }
+
+    private Duration readFeed(XMLStreamReader reader, UUID feedId, Predicate<Article> sink) throws XMLStreamException {
+        Duration ttl = null;
+        String updatePeriod = null;
+        int updateFrequency = 1;
+        int count = 0;
+
+        while (reader.hasNext()) {
+            if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            String name = reader.getLocalName();
+            String ns = nullToEmpty(reader.getNamespaceURI());
+
+            if (isEntry(name, ns)) {
+                Article article = readEntry(reader, ns, feedId);
+                if (count++ >= maxEntries || !sink.test(article)) {
+                    break;
+                }
+            } else if ("ttl".equals(name) && ns.isEmpty()) {
+                ttl = minutes(reader.getElementText());
+            } else if (SY_NS.equals(ns) && "updatePeriod".equals(name)) {
+                updatePeriod = reader.getElementText();
+            } else if (SY_NS.equals(ns) && "updateFrequency".equals(name)) {
+                updateFrequency = parseInt(reader.getElementText(), 1);
+            }
+        }
+        return SyndicationHints.longest(ttl, SyndicationHints.updateInterval(updatePeriod, updateFrequency));
+    }
+
+    /**
+     * Reads one item/entry; the reader is positioned on its start tag and left on its end tag.
+     */
+    private Article readEntry(XMLStreamReader reader, String entryNs, UUID feedId) throws XMLStreamException {
+        boolean atom = ATOM_NS.equals(entryNs) || ATOM_03_NS.equals(entryNs);
+        Article.ArticleBuilder article = Article.builder().feedId(feedId);
+        String guid = null;
+        String link = null;
+        String author = null;
+        String category = null;
+        Date published = null;
+        Date updated = null;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                break; // end of the entry itself; children are always consumed entirely below
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            String name = reader.getLocalName();
+            String ns = nullToEmpty(reader.getNamespaceURI());
+
+            if (DC_NS.equals(ns)) {
+                switch (name) {
+                    case "creator" -> author = firstNonBlank(author, readText(reader));
+                    case "date" -> published = firstNonNull(published, parseDate(readText(reader)));
+                    case "subject" -> category = firstNonBlank(category, readText(reader));
+                    default -> skip(reader);
+                }
+            } else if (CONTENT_NS.equals(ns) && "encoded".equals(name)) {
+                article.content(readText(reader));
+            } else if (atom && entryNs.equals(ns)) {
+                switch (name) {
+                    case "title" -> article.title(readText(reader));
+                    case "id" -> guid = readText(reader);
+                    case "link" -> {
+                        String rel = reader.getAttributeValue(null, "rel");
+                        if (link == null && (rel == null || "alternate".equals(rel))) {
+                            link = reader.getAttributeValue(null, "href");
+                        }
+                        skip(reader);
+                    }
+                    case "summary" -> article.description(readText(reader));
+                    case "content" -> article.content(readText(reader));
+                    case "author" -> author = firstNonBlank(author, readAtomPersonName(reader, entryNs));
+                    case "published", "issued" -> published = parseDate(readText(reader));
+                    case "updated", "modified" -> updated = parseDate(readText(reader));
+                    case "category" -> {
+                        category = firstNonBlank(category, reader.getAttributeValue(null, "term"));
+                        skip(reader);
+                    }
+                    default -> skip(reader);
+                }
+            } else if (!atom && (ns.isEmpty() || RSS_10_NS.equals(ns))) {
+                switch (name) {
+                    case "title" -> article.title(readText(reader));
+                    case "link" -> link = readText(reader);
+                    case "guid" -> guid = readText(reader);
+                    case "description" -> article.description(readText(reader));
+                    case "author" -> author = firstNonBlank(author, readText(reader));
+                    case "pubDate" -> published = parseDate(readText(reader));
+                    case "category" -> category = firstNonBlank(category, readText(reader));
+                    default -> skip(reader);
+                }
+            } else {
+                // Extension elements (itunes:, media:, atom:link in RSS) reuse names like title and link
+                skip(reader);
+            }
+        }
+
+        // Same identity rule as ROME: the guid/id when present, otherwise the link
+        return article
+                .guid(isBlank(guid) ? link : guid.trim())
+                .link(link != null ? link.trim() : null)
+                .author(author)
+                .category(category)
+                .publishDate(published != null ? published : updated)
+                .build();
+    }
+
+    private static boolean isEntry(String name, String ns) {
+        return ("item".equals(name) && (ns.isEmpty() || RSS_10_NS.equals(ns)))
+                || ("entry".equals(name) && (ATOM_NS.equals(ns) || ATOM_03_NS.equals(ns)));
+    }
+
+    private static String readAtomPersonName(XMLStreamReader reader, String entryNs) throws XMLStreamException {
+        String personName = null;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                return personName;
+            }
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if ("name".equals(reader.getLocalName()) && entryNs.equals(nullToEmpty(reader.getNamespaceURI()))) {
+                    personName = readText(reader);
+                } else {
+                    skip(reader);
+                }
+            }
+        }
+        return personName;
+    }
+
+    /**
+     * Returns the text of the current element. Nested markup (Atom xhtml content) is kept as markup.
+     * The reader is left on the element's end tag.
+     */
+    private static String readText(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        int depth = 1;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE ->
+                        text.append(reader.getText());
+                case XMLStreamConstants.START_ELEMENT -> {
+                    depth++;
+                    text.append('<').append(reader.getLocalName());
+                    for (int i = 0; i < reader.getAttributeCount(); i++) {
+                        text.append(' ').append(reader.getAttributeLocalName(i)).append("=\"")
+                                .append(reader.getAttributeValue(i).replace("\"", "&quot;")).append('"');
+                    }
+                    text.append('>');
+                }
+                case XMLStreamConstants.END_ELEMENT -> {
+                    if (--depth == 0) {
+                        return text.toString();
+                    }
+                    text.append("</").append(reader.getLocalName()).append('>');
+                }
+                default -> {
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    private static void skip(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static Charset charsetOf(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        try {
+            return MediaType.parseMediaType(contentType).getCharset();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Date parseDate(String value) {
+        return isBlank(value) ? null : DateParser.parseDate(value.trim(), Locale.US);
+    }
+
+    private static Duration minutes(String value) {
+        int minutes = parseInt(value, 0);
+        return minutes > 0 ? Duration.ofMinutes(minutes) : null;
+    }
+
+    private static int parseInt(String value, int fallback) {
+        try {
+            return value != null ? Integer.parseInt(value.trim()) : fallback;
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static String firstNonBlank(String current, String candidate) {
+        return !isBlank(current) ? current : candidate;
+    }
+
+    private static <T> T firstNonNull(T current, T candidate) {
+        return current != null ? current : candidate;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
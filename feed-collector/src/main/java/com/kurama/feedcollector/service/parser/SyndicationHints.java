@@ -0,0 +1,35 @@
+package com.kurama.feedcollector.service.parser;
+
+import java.time.Duration;
+import java.util.Locale;
+
+final class SyndicationHints {
+
+    private SyndicationHints() {
+    }
+
+    static Duration updateInterval(String updatePeriod, int updateFrequency) {
+        if (updatePeriod == null) {
+            return null;
+        }
+        Duration period = switch (updatePeriod.trim().toLowerCase(Locale.ROOT)) {
+            case "hourly" -> Duration.ofHours(1);
+            case "daily" -> Duration.ofDays(1);
+            case "weekly" -> Duration.ofDays(7);
+            case "monthly" -> Duration.ofDays(30);
+            case "yearly" -> Duration.ofDays(365);
+            default -> null;
+        };
+        return period != null ? period.dividedBy(Math.max(1, updateFrequency)) : null;
+    }
+
+    static Duration longest(Duration a, Duration b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+}
@@ -0,0 +1,9 @@
+-- Article lists: WHERE feed_id = ? ORDER BY publish_date DESC, guid DESC, for both offset and keyset pages
+create index if not exists idx_articles_feed_publish_date on articles (feed_id, publish_date desc, guid desc);
+
+-- Due feeds: every feed has a next_poll_at, so the scheduler's lookup is a plain range scan in index order.
+-- Lookups by url are served by the uk_feeds_url unique index.
+update feeds set next_poll_at = current_timestamp where next_poll_at is null;
+alter table feeds alter column next_poll_at set default current_timestamp;
+alter table feeds alter column next_poll_at set not null;
+create index if not exists idx_feeds_next_poll_at on feeds (next_poll_at);
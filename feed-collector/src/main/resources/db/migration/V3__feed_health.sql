@@ -0,0 +1,6 @@
+-- Failure tracking per feed. A feed with consecutive_failures at or above feed.poll.failure.threshold is unhealthy
+-- and parked until disabled_until; a successful poll resets both.
+alter table feeds add column consecutive_failures integer not null default 0;
+alter table feeds add column last_error varchar(1000);
+alter table feeds add column last_error_at timestamp(6) with time zone;
+alter table feeds add column disabled_until timestamp(6) with time zone;
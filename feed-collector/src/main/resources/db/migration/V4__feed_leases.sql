@@ -0,0 +1,4 @@
+-- Which instance is polling a feed. A leased feed's next_poll_at is pushed to leased_until, so other instances only
+-- pick it up again if the lease runs out before the poll finishes.
+alter table feeds add column leased_by varchar(100);
+alter table feeds add column leased_until timestamp(6) with time zone;
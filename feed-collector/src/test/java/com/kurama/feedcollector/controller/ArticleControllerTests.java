@@ -0,0 +1,68 @@
+package com.kurama.feedcollector.controller;
+
+import com.kurama.feedcollector.dto.ArticleDto;
+import com.kurama.feedcollector.service.ArticleService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.net.URI;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ArticleControllerTests {
+
+    private final ArticleService articleService = mock(ArticleService.class);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ArticleController(articleService)).build();
+
+    @Test
+    void takesTheRestOfThePathAsTheGuid() throws Exception {
+        article("https://example.com/2025/10/post");
+
+        mockMvc.perform(get(URI.create("/api/v1/articles/https://example.com/2025/10/post")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.guid").value("https://example.com/2025/10/post"));
+    }
+
+    @Test
+    void decodesQueryAndFragmentCharactersInTheGuid() throws Exception {
+        article("https://example.com/?p=123");
+        article("tag:example.com,2025:post#1");
+
+        mockMvc.perform(get(URI.create("/api/v1/articles/https://example.com/%3Fp=123")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.guid").value("https://example.com/?p=123"));
+        mockMvc.perform(get(URI.create("/api/v1/articles/tag:example.com,2025:post%231")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.guid").value("tag:example.com,2025:post#1"));
+    }
+
+    @Test
+    void unencodedQueryIsNotPartOfTheGuid() throws Exception {
+        article("https://example.com/?p=123");
+        when(articleService.getArticle("https://example.com/")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get(URI.create("/api/v1/articles/https://example.com/?p=123")))
+                .andExpect(status().isNotFound());
+        verify(articleService).getArticle("https://example.com/");
+    }
+
+    @Test
+    void missingGuidIsNotFound() throws Exception {
+        when(articleService.getArticle(anyString())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/v1/articles/")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/articles/unknown")).andExpect(status().isNotFound());
+    }
+
+    private void article(String guid) {
+        when(articleService.getArticle(guid)).thenReturn(Optional.of(ArticleDto.builder().guid(guid).title("Post").build()));
+    }
+}
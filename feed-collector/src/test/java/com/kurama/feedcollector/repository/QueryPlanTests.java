@@ -0,0 +1,60 @@
+package com.kurama.feedcollector.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the hot queries through {@code EXPLAIN} on the migrated schema and checks that each one is answered from the
+ * index created for it rather than a table scan.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryPlanTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void articleListsUseFeedPublishDateIndex() {
+        assertThat(explain("select guid, title from articles where feed_id = ? order by publish_date desc, guid desc "
+                + "limit 9", UUID.randomUUID()))
+                .contains("idx_articles_feed_publish_date");
+        assertThat(explain("select guid, title from articles where feed_id = ? and publish_date <= ? "
+                + "and (publish_date < ? or guid < ?) order by publish_date desc, guid desc limit 9",
+                UUID.randomUUID(), "2025-10-07 10:00:00", "2025-10-07 10:00:00", "guid"))
+                .contains("idx_articles_feed_publish_date");
+    }
+
+    @Test
+    void dueFeedsUseNextPollIndex() {
+        assertThat(explain("select id from feeds where next_poll_at <= ? order by next_poll_at limit 1000",
+                "2025-10-07 10:00:00+00"))
+                .contains("idx_feeds_next_poll_at");
+    }
+
+    @Test
+    void feedLookupByUrlUsesUniqueIndex() {
+        assertThat(explain("select id from feeds where url = ?", "http://example.com/rss"))
+                .contains("uk_feeds_url");
+    }
+
+    @Test
+    void outboxClaimUsesPendingIndex() {
+        assertThat(explain("select id from article_outbox where published_at is null and next_attempt_at <= ? "
+                + "order by id limit 500", "2025-10-07 10:00:00+00"))
+                .contains("idx_article_outbox_pending");
+    }
+
+    private String explain(String sql, Object... args) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class, args));
+        assertThat(plan).as(plan).doesNotContainIgnoringCase("tableScan");
+        return plan;
+    }
+}
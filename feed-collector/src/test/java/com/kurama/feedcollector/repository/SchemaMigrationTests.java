@@ -0,0 +1,49 @@
+package com.kurama.feedcollector.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upgrades a database in the shape {@code ddl-auto=update} left it before the schema moved to Flyway, with the same
+ * baseline settings as {@code spring.flyway} in application.yml.
+ */
+class SchemaMigrationTests {
+
+    @Test
+    void upgradesSchemaCreatedByDdlAuto() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:pre-flyway-" + UUID.randomUUID()
+                + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table feeds (id uuid not null, url varchar(255) not null, title varchar(255), "
+                + "background_img varchar(255), last_polled_at timestamp(6) with time zone, primary key (id), "
+                + "constraint uk_7tp4q8ycl9rbn8x3xkbt0bldt unique (url))");
+        jdbc.execute("create table articles (guid varchar(255) not null, title varchar(255), link varchar(255), "
+                + "description text, author varchar(255), publish_date timestamp(6), content text, "
+                + "category varchar(255), feed_id uuid, created_date timestamp(6), primary key (guid))");
+        UUID feedId = UUID.randomUUID();
+        jdbc.update("insert into feeds (id, url, title, last_polled_at) values (?, ?, ?, ?)",
+                feedId, "http://example.com/rss", "Example", Timestamp.from(Instant.now()));
+
+        MigrateResult result = Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+
+        assertThat(result.success).isTrue();
+        assertThat(result.migrations).extracting(m -> m.version).first().isEqualTo("1");
+        assertThat(jdbc.queryForObject("select next_poll_at is not null and consecutive_failures = 0 "
+                + "and etag is null and leased_by is null from feeds where id = ?", Boolean.class, feedId)).isTrue();
+        assertThat(jdbc.queryForObject("select count(*) from article_outbox", Integer.class)).isZero();
+    }
+}
@@ -0,0 +1,72 @@
+package com.kurama.feedcollector.service;
+
+import com.kurama.feedcollector.entity.Feed;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptivePollSchedulerTests {
+
+    private final AdaptivePollScheduler scheduler =
+            new AdaptivePollScheduler(Duration.ofSeconds(30), Duration.ofHours(1), 2.0, Duration.ofHours(4));
+
+    @Test
+    void doublesWhenNothingIsNew() {
+        assertThat(scheduler.nextInterval(feed(600), fetched(0))).isEqualTo(Duration.ofMinutes(20));
+        assertThat(scheduler.nextInterval(feed(600), PollOutcome.notModified(304, null, null)))
+                .isEqualTo(Duration.ofMinutes(20));
+    }
+
+    @Test
+    void halvesWhenArticlesAreNew() {
+        assertThat(scheduler.nextInterval(feed(600), fetched(3))).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @Test
+    void keepsTheIntervalOfFailedAndSkippedPolls() {
+        assertThat(scheduler.nextInterval(feed(600), PollOutcome.failed(503, null, null, "HTTP 503")))
+                .isEqualTo(Duration.ofMinutes(10));
+        assertThat(scheduler.nextInterval(feed(600), PollOutcome.skipped(null, null)))
+                .isEqualTo(Duration.ofMinutes(10));
+    }
+
+    @Test
+    void clampsToTheConfiguredRange() {
+        assertThat(scheduler.nextInterval(feed(40), fetched(1))).isEqualTo(Duration.ofSeconds(30));
+        assertThat(scheduler.nextInterval(feed(3000), fetched(0))).isEqualTo(Duration.ofHours(1));
+        assertThat(scheduler.nextInterval(feed(null), fetched(1))).isEqualTo(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void publisherHintIsALowerBoundWithinTheRange() {
+        assertThat(scheduler.nextInterval(feed(600), hinted(Duration.ofMinutes(15)))).isEqualTo(Duration.ofMinutes(15));
+        assertThat(scheduler.nextInterval(feed(600), hinted(Duration.ofMinutes(1)))).isEqualTo(Duration.ofMinutes(5));
+        assertThat(scheduler.nextInterval(feed(600), hinted(Duration.ofDays(1)))).isEqualTo(Duration.ofHours(1));
+    }
+
+    @Test
+    void failureBackoffDoublesUpToItsOwnCap() {
+        assertThat(scheduler.failureBackoff(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(scheduler.failureBackoff(2)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(scheduler.failureBackoff(5)).isEqualTo(Duration.ofMinutes(8));
+        // Past max-interval, but never past max-backoff, however long the feed has been failing
+        assertThat(scheduler.failureBackoff(10)).isEqualTo(Duration.ofHours(4));
+        assertThat(scheduler.failureBackoff(1000)).isEqualTo(Duration.ofHours(4));
+    }
+
+    private static Feed feed(Integer intervalSeconds) {
+        Feed feed = Feed.of("http://example.com/rss", null, null);
+        feed.setPollIntervalSeconds(intervalSeconds);
+        return feed;
+    }
+
+    private static PollOutcome fetched(int newArticles) {
+        return new PollOutcome(PollOutcome.Status.FETCHED, 200, newArticles, null, null, null, null);
+    }
+
+    private static PollOutcome hinted(Duration publisherHint) {
+        return new PollOutcome(PollOutcome.Status.FETCHED, 200, 2, null, null, publisherHint, null);
+    }
+}
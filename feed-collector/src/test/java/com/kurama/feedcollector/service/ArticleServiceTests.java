@@ -0,0 +1,99 @@
+package com.kurama.feedcollector.service;
+
+import com.kurama.feedcollector.dto.ArticleDto;
+import com.kurama.feedcollector.dto.ArticleSummary;
+import com.kurama.feedcollector.dto.CursorPage;
+import com.kurama.feedcollector.entity.Article;
+import com.kurama.feedcollector.repository.ArticleRepository;
+import com.kurama.feedcollector.service.exception.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ArticleService.class)
+class ArticleServiceTests {
+
+    private static final UUID FEED_ID = UUID.randomUUID();
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    private List<Article> stored;
+
+    @BeforeEach
+    void storeArticles() {
+        // Several articles share a publish date and some have none, so the order depends on the guid tie-breaker
+        stored = articleRepository.saveAll(IntStream.range(0, 23)
+                .mapToObj(i -> Article.builder()
+                        .guid("guid-%02d".formatted(i))
+                        .title("Article " + i)
+                        .content("<p>Body " + i + "</p>")
+                        .feedId(FEED_ID)
+                        .publishDate(i % 5 == 0 ? null : new Date(1_759_744_800_000L + (i / 3) * 60_000L))
+                        .build())
+                .toList());
+        articleRepository.save(Article.builder().guid("other").feedId(UUID.randomUUID()).publishDate(new Date()).build());
+    }
+
+    @Test
+    void scrollsThroughEveryArticleOnceInOrder() {
+        List<String> expected = stored.stream()
+                .sorted(Comparator.comparing(Article::getPublishDate, Comparator.nullsLast(Comparator.reverseOrder()))
+                        .thenComparing(Article::getGuid, Comparator.reverseOrder()))
+                .map(Article::getGuid)
+                .toList();
+
+        List<String> scrolled = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<ArticleSummary> page = articleService.scrollArticlesByFeedId(FEED_ID, cursor, 4, false);
+            page.getItems().forEach(article -> scrolled.add(article.guid()));
+            assertThat(page.isHasNext()).isEqualTo(page.getNextCursor() != null);
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(scrolled).containsExactlyElementsOf(expected);
+        assertThat(pages).isEqualTo(6);
+    }
+
+    @Test
+    void reportsApproximateTotalOnlyWhenAsked() {
+        assertThat(articleService.scrollArticlesByFeedId(FEED_ID, null, 4, false).getApproximateTotal()).isNull();
+        assertThat(articleService.scrollArticlesByFeedId(FEED_ID, null, 4, true).getApproximateTotal()).isEqualTo(23);
+    }
+
+    @Test
+    void fullArticleIsOnlyLoadedByGuid() {
+        assertThat(articleService.getArticle("guid-07")).get()
+                .extracting(ArticleDto::getContent).isEqualTo("<p>Body 7</p>");
+        assertThat(articleService.getArticle("missing")).isEmpty();
+    }
+
+    @Test
+    void rejectsMalformedCursorsAndSizes() {
+        assertThatThrownBy(() -> articleService.scrollArticlesByFeedId(FEED_ID, "not a cursor", 4, false))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> articleService.scrollArticlesByFeedId(FEED_ID, null, 0, false))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
@@ -0,0 +1,115 @@
+package com.kurama.feedcollector.service;
+
+import com.kurama.feedcollector.entity.Feed;
+import com.kurama.feedcollector.repository.FeedRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Every lease commits on its own, as it does between instances
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FeedLeaserTests {
+
+    @Autowired
+    private FeedRepository feedRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void deleteFeeds() {
+        feedRepository.deleteAll();
+    }
+
+    @Test
+    void instancesLeaseDisjointFeeds() {
+        List<UUID> stored = feedRepository.saveAll(IntStream.range(0, 300)
+                        .mapToObj(i -> Feed.of("http://feeds.example/" + i, null, null))
+                        .toList())
+                .stream().map(Feed::getId).toList();
+        FeedLeaser first = leaser("first", Duration.ofMinutes(3));
+        FeedLeaser second = leaser("second", Duration.ofMinutes(3));
+
+        List<UUID> leased = Collections.synchronizedList(new ArrayList<>());
+        CompletableFuture.allOf(
+                CompletableFuture.runAsync(() -> leaseUntilEmpty(first, leased)),
+                CompletableFuture.runAsync(() -> leaseUntilEmpty(second, leased))
+        ).join();
+
+        assertThat(leased).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(stored);
+        assertThat(feedRepository.findAll()).allSatisfy(feed -> {
+            assertThat(feed.getLeasedBy()).isIn("first", "second");
+            assertThat(feed.getNextPollAt()).isEqualTo(feed.getLeasedUntil()).isAfter(Instant.now());
+        });
+    }
+
+    @Test
+    void expiredAndReleasedLeasesAreDueAgain() {
+        Feed expiring = feedRepository.save(Feed.of("http://feeds.example/expiring", null, null));
+        Feed released = feedRepository.save(Feed.of("http://feeds.example/released", null, null));
+        leaser("crashed", Duration.ZERO).leaseDueFeeds(1);
+        FeedLeaser survivor = leaser("survivor", Duration.ofMinutes(3));
+
+        // The zero-length lease has run out, so the feed is due again for any instance
+        assertThat(survivor.leaseDueFeeds(10)).extracting(Feed::getId)
+                .containsExactlyInAnyOrder(expiring.getId(), released.getId());
+        assertThat(survivor.leaseDueFeeds(10)).isEmpty();
+
+        survivor.release(List.of(released.getId()));
+        assertThat(leaser("other", Duration.ofMinutes(3)).leaseDueFeeds(10)).extracting(Feed::getId)
+                .containsExactly(released.getId());
+
+        survivor.releaseAll();
+        assertThat(feedRepository.findById(expiring.getId()).orElseThrow().getLeasedBy()).isNull();
+        assertThat(feedRepository.findById(released.getId()).orElseThrow().getLeasedBy()).isEqualTo("other");
+    }
+
+    @Test
+    void pollsOnlyEndTheirOwnLease() {
+        Feed feed = feedRepository.save(Feed.of("http://feeds.example/contended", null, null));
+        FeedLeaser owner = leaser("owner", Duration.ofMinutes(3));
+        FeedLeaser other = leaser("other", Duration.ofMinutes(3));
+        assertThat(owner.leaseDueFeeds(10)).hasSize(1);
+
+        // A manual poll on another instance backs off, and a late result from it would not touch the lease
+        assertThat(other.tryLease(feed.getId())).isFalse();
+        Instant now = Instant.now();
+        assertThat(feedRepository.updatePollState(feed.getId(), "other", now, null, null, now, 60)).isZero();
+        assertThat(feedRepository.postpone(feed.getId(), "other", now)).isZero();
+        assertThat(feedRepository.findById(feed.getId()).orElseThrow().getLeasedBy()).isEqualTo("owner");
+
+        assertThat(feedRepository.updatePollState(feed.getId(), "owner", now, null, null, now, 60)).isOne();
+        assertThat(other.tryLease(feed.getId())).isTrue();
+        assertThat(feedRepository.findById(feed.getId()).orElseThrow().getLeasedBy()).isEqualTo("other");
+    }
+
+    private FeedLeaser leaser(String instanceId, Duration lease) {
+        return new FeedLeaser(feedRepository, transactionTemplate, instanceId, lease);
+    }
+
+    private static void leaseUntilEmpty(FeedLeaser leaser, List<UUID> leased) {
+        List<Feed> batch;
+        do {
+            batch = leaser.leaseDueFeeds(25);
+            batch.forEach(feed -> leased.add(feed.getId()));
+        } while (!batch.isEmpty());
+    }
+}
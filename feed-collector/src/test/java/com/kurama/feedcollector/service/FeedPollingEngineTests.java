@@ -0,0 +1,110 @@
+package com.kurama.feedcollector.service;
+
+import com.kurama.feedcollector.entity.Feed;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedPollingEngineTests {
+
+    private FeedPollingEngine engine;
+
+    @AfterEach
+    void shutdown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void neverExceedsTheGlobalOrPerHostLimits() {
+        engine = new FeedPollingEngine(4, 2, Duration.ofSeconds(30), new SimpleMeterRegistry());
+        List<Feed> feeds = IntStream.range(0, 40)
+                .mapToObj(i -> feed("http://host-" + i % 5 + ".example/feed/" + i))
+                .toList();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Map<String, AtomicInteger> runningPerHost = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> maxPerHost = new ConcurrentHashMap<>();
+
+        FeedPollingEngine.PollCycleResult result = engine.runCycle(feeds, feed -> {
+            String host = FeedPollingEngine.hostOf(feed.getUrl());
+            AtomicInteger onHost = runningPerHost.computeIfAbsent(host, h -> new AtomicInteger());
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            maxPerHost.computeIfAbsent(host, h -> new AtomicInteger())
+                    .accumulateAndGet(onHost.incrementAndGet(), Math::max);
+            sleep(20);
+            onHost.decrementAndGet();
+            running.decrementAndGet();
+        });
+
+        assertThat(result.polled()).isEqualTo(40);
+        assertThat(result.skipped()).isZero();
+        assertThat(maxRunning.get()).isBetween(2, 4);
+        assertThat(maxPerHost.values()).allSatisfy(max -> assertThat(max.get()).isLessThanOrEqualTo(2));
+    }
+
+    @Test
+    void feedsWithoutAPermitAtTheDeadlineAreSkipped() {
+        engine = new FeedPollingEngine(8, 1, Duration.ofMillis(300), new SimpleMeterRegistry());
+        CountDownLatch release = new CountDownLatch(1);
+        List<Feed> feeds = List.of(feed("http://slow.example/a"), feed("http://slow.example/b"),
+                feed("http://fast.example/c"));
+
+        FeedPollingEngine.PollCycleResult result = engine.runCycle(feeds, feed -> {
+            if (feed.getUrl().startsWith("http://slow")) {
+                // The first feed on the slow host holds its only permit past the deadline
+                await(release, 1000);
+            }
+        });
+        release.countDown();
+
+        assertThat(result.polled()).isEqualTo(2);
+        assertThat(result.skipped()).isEqualTo(1);
+        assertThat(result.wallTime()).isLessThan(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void feedsWithInvalidUrlsAreSkipped() {
+        engine = new FeedPollingEngine(8, 2, Duration.ofSeconds(1), new SimpleMeterRegistry());
+        AtomicInteger polled = new AtomicInteger();
+
+        FeedPollingEngine.PollCycleResult result = engine.runCycle(
+                List.of(feed("not a url"), feed("http://ok.example/feed")), feed -> polled.incrementAndGet());
+
+        assertThat(result.skipped()).isEqualTo(1);
+        assertThat(polled).hasValue(1);
+    }
+
+    private static Feed feed(String url) {
+        Feed feed = Feed.of(url, null, null);
+        feed.setId(UUID.randomUUID());
+        return feed;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch, long millis) {
+        try {
+            latch.await(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
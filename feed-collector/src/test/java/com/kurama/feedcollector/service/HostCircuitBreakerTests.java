@@ -0,0 +1,74 @@
+package com.kurama.feedcollector.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class HostCircuitBreakerTests {
+
+    private static final String FEED = "https://down.example/feed.xml";
+    private static final String SAME_HOST = "https://DOWN.example/other.xml";
+
+    private final HostCircuitBreaker breaker = new HostCircuitBreaker(new SimpleMeterRegistry(), 3,
+            Duration.ofMillis(200), Duration.ofMillis(300));
+
+    @Test
+    void opensForTheWholeHostAfterRepeatedFailures() {
+        breaker.recordFailure(FEED);
+        breaker.recordFailure(SAME_HOST);
+        assertThat(breaker.allowRequest(FEED)).isTrue();
+
+        breaker.recordFailure(FEED);
+
+        assertThat(breaker.allowRequest(SAME_HOST)).isFalse();
+        assertThat(breaker.isOpen(FEED)).isTrue();
+        assertThat(breaker.retryAt(FEED)).hasValueSatisfying(at -> assertThat(at).isAfter(Instant.now()));
+        assertThat(breaker.allowRequest("https://up.example/feed.xml")).isTrue();
+    }
+
+    @Test
+    void letsOneProbeThroughAndClosesWhenItSucceeds() {
+        open();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> breaker.allowRequest(FEED));
+        assertThat(breaker.allowRequest(SAME_HOST)).isFalse();
+
+        breaker.recordSuccess(FEED);
+
+        assertThat(breaker.isOpen(FEED)).isFalse();
+        assertThat(breaker.allowRequest(SAME_HOST)).isTrue();
+    }
+
+    @Test
+    void retriesOtherFeedsAfterTheRunningProbeInsteadOfRightAway() {
+        open();
+        await().atMost(Duration.ofSeconds(5)).until(() -> breaker.allowRequest(FEED));
+        Instant probeStarted = Instant.now();
+
+        assertThat(breaker.allowRequest(SAME_HOST)).isFalse();
+        assertThat(breaker.retryAt(SAME_HOST).orElseThrow()).isAfter(probeStarted.plusMillis(150));
+    }
+
+    @Test
+    void failedProbeReopensForLonger() {
+        open();
+        Instant firstRetry = breaker.retryAt(FEED).orElseThrow();
+        await().atMost(Duration.ofSeconds(5)).until(() -> breaker.allowRequest(FEED));
+
+        breaker.recordFailure(FEED);
+
+        assertThat(breaker.allowRequest(FEED)).isFalse();
+        assertThat(breaker.retryAt(FEED).orElseThrow()).isAfter(firstRetry.plusMillis(250));
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure(FEED);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.kurama.feedcollector.service;
+
+import com.kurama.feedcollector.config.KafkaConfig;
+import com.kurama.schema.ArticleMessage;
+import com.kurama.schema.ArticleMessageSerializer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.serialization.StringSerializer;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the Kafka client defaults with the throughput profile from {@link KafkaConfig}.
+ * Excluded from the default build; run with
+ * {@code mvn test -Dtest=KafkaProducerBenchmarkTests -Dgroups=benchmark -DexcludedGroups=none}.
+ */
+@Tag("benchmark")
+@Log4j2
+@EmbeddedKafka(partitions = 3, topics = "NEW_ARTICLES")
+class KafkaProducerBenchmarkTests {
+
+    private static final int RECORDS = 50_000;
+    // Rows per outbox relay round
+    private static final int PER_BATCH = 500;
+
+    @Test
+    void throughputProfileSendsFewerBytesFaster(EmbeddedKafkaBroker broker) {
+        List<ArticleMessage> articles = articles();
+
+        Result defaults = run(broker, Map.of(), articles);
+        Result tuned = run(broker, KafkaConfig.throughputProps(20, 131072, "zstd", 67108864L), articles);
+
+        log.info("default:    {} records/s, {} bytes out", Math.round(defaults.recordsPerSecond()), Math.round(defaults.bytesOut()));
+        log.info("throughput: {} records/s, {} bytes out", Math.round(tuned.recordsPerSecond()), Math.round(tuned.bytesOut()));
+        assertThat(tuned.bytesOut()).isLessThan(defaults.bytesOut());
+    }
+
+    private static Result run(EmbeddedKafkaBroker broker, Map<String, Object> overrides, List<ArticleMessage> articles) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ArticleMessageSerializer.class);
+        props.putAll(overrides);
+        DefaultKafkaProducerFactory<String, ArticleMessage> factory = new DefaultKafkaProducerFactory<>(props);
+        try {
+            KafkaTemplate<String, ArticleMessage> template = new KafkaTemplate<>(factory);
+            KafkaArticleProducerService producer = new KafkaArticleProducerService(template);
+            // Warm up metadata and connections outside the measurement
+            sendBatch(producer, articles.subList(0, PER_BATCH));
+            double bytesBefore = outgoingBytes(template);
+
+            long start = System.nanoTime();
+            // Like the outbox relay: send a batch, wait for all of it to be acknowledged, then send the next
+            for (int from = 0; from < articles.size(); from += PER_BATCH) {
+                sendBatch(producer, articles.subList(from, Math.min(from + PER_BATCH, articles.size())));
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            return new Result(articles.size() / seconds, outgoingBytes(template) - bytesBefore);
+        } finally {
+            factory.destroy();
+        }
+    }
+
+    private static void sendBatch(KafkaArticleProducerService producer, List<ArticleMessage> batch) {
+        CompletableFuture.allOf(batch.stream().map(producer::publish).toArray(CompletableFuture[]::new)).join();
+    }
+
+    private static double outgoingBytes(KafkaTemplate<String, ArticleMessage> template) {
+        for (Map.Entry<MetricName, ? extends Metric> metric : template.metrics().entrySet()) {
+            if ("outgoing-byte-total".equals(metric.getKey().name()) && "producer-metrics".equals(metric.getKey().group())) {
+                return (double) metric.getValue().metricValue();
+            }
+        }
+        throw new IllegalStateException("outgoing-byte-total not reported");
+    }
+
+    private static List<ArticleMessage> articles() {
+        String paragraph = "Feeds repeat a lot of boilerplate markup and vocabulary, which is what compression feeds on. ";
+        List<ArticleMessage> articles = new ArrayList<>(RECORDS);
+        UUID feedId = UUID.randomUUID();
+        for (int i = 0; i < RECORDS; i++) {
+            articles.add(ArticleMessage.builder()
+                    .guid("https://example.com/posts/" + i)
+                    .title("Article number " + i)
+                    .link("https://example.com/posts/" + i)
+                    .description(paragraph.repeat(3))
+                    .author("Example Author")
+                    .publishDate(System.currentTimeMillis())
+                    .content("<p>" + paragraph.repeat(12) + "</p>")
+                    .category("Technology")
+                    .feedId(feedId)
+                    .build());
+        }
+        return articles;
+    }
+
+    private record Result(double recordsPerSecond, double bytesOut) {
+    }
+}
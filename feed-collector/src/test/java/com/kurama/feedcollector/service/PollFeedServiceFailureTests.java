@@ -0,0 +1,188 @@
+package com.kurama.feedcollector.service;
+
+import com.kurama.feedcollector.dto.FeedHealth;
+import com.kurama.feedcollector.entity.Feed;
+import com.kurama.feedcollector.repository.ArticleBatchRepository;
+import com.kurama.feedcollector.repository.FeedRepository;
+import com.kurama.feedcollector.service.cache.FeedReadCache;
+import com.kurama.feedcollector.service.dedup.SeenGuidCache;
+import com.kurama.feedcollector.service.fetch.FeedFetcher;
+import com.kurama.feedcollector.service.parser.RomeFeedParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "feed.poll.tick-millis=3600000",
+        "feed.poll.failure.threshold=2",
+        "feed.poll.circuit.failure-threshold=3"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({PollFeedService.class, ArticleBatchRepository.class, RomeFeedParser.class, SeenGuidCache.class,
+        FeedPollingEngine.class, AdaptivePollScheduler.class, HostCircuitBreaker.class, FeedFetcher.class, FeedLeaser.class,
+        FeedService.class, FeedReadCache.class, PollFeedServiceFailureTests.MetricsConfig.class})
+class PollFeedServiceFailureTests {
+
+    @Autowired
+    private PollFeedService pollFeedService;
+
+    @Autowired
+    private FeedService feedService;
+
+    @Autowired
+    private FeedRepository feedRepository;
+
+    @Autowired
+    private HostCircuitBreaker circuitBreaker;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final AtomicInteger failing = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/feed", exchange -> {
+            requests.incrementAndGet();
+            byte[] body = """
+                    <?xml version="1.0" encoding="UTF-8"?>
+                    <rss version="2.0"><channel><title>t</title><link>http://example.com</link></channel></rss>
+                    """.getBytes(StandardCharsets.UTF_8);
+            int status = failing.get() > 0 ? 503 : 200;
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/malformed", exchange -> {
+            byte[] body = "<html>not a feed".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/moved", exchange -> redirect(exchange, "/feed"));
+        server.createContext("/moved-to-nowhere", exchange -> redirect(exchange, "/gone"));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void repeatedFailuresBackOffAndMarkTheFeedUnhealthy() {
+        failing.set(1);
+        Feed feed = feedRepository.save(Feed.of(url(), "down", null));
+
+        Feed once = poll(feed);
+        assertThat(once.getConsecutiveFailures()).isEqualTo(1);
+        assertThat(once.getLastError()).isEqualTo("HTTP 503");
+        assertThat(once.getDisabledUntil()).isNull();
+        assertThat(feedService.getUnhealthy(10)).isEmpty();
+
+        Feed twice = poll(once);
+        assertThat(twice.getConsecutiveFailures()).isEqualTo(2);
+        assertThat(twice.getDisabledUntil()).isEqualTo(twice.getNextPollAt()).isAfter(once.getNextPollAt());
+        assertThat(feedService.getUnhealthy(10)).extracting(FeedHealth::id).containsExactly(feed.getId());
+
+        failing.set(0);
+        Feed recovered = poll(twice);
+        assertThat(recovered.getConsecutiveFailures()).isZero();
+        assertThat(recovered.getDisabledUntil()).isNull();
+        assertThat(feedService.getUnhealthy(10)).isEmpty();
+    }
+
+    @Test
+    void openHostCircuitSkipsFeedsWithoutARequest() {
+        failing.set(1);
+        // Circuits are per host and outlive the test, so this test gets a host of its own
+        Feed feed = feedRepository.save(Feed.of(url().replace("localhost", "127.0.0.1"), "down", null));
+        for (int i = 0; i < 3; i++) {
+            feed = poll(feed);
+        }
+        int sent = requests.get();
+
+        PollOutcome outcome = pollFeedService.pollFeed(feed);
+
+        assertThat(outcome.status()).isEqualTo(PollOutcome.Status.SKIPPED);
+        assertThat(requests).hasValue(sent);
+        entityManager.clear();
+        assertThat(feedRepository.findById(feed.getId()).orElseThrow().getNextPollAt()).isAfter(Instant.now());
+    }
+
+    @Test
+    void malformedFeedFailsWithoutOpeningTheHostCircuit() {
+        Feed feed = feedRepository.save(Feed.of(url("/malformed"), "malformed", null));
+        for (int i = 0; i < 3; i++) {
+            feed = poll(feed);
+        }
+
+        assertThat(feed.getConsecutiveFailures()).isEqualTo(3);
+        assertThat(circuitBreaker.isOpen(url())).isFalse();
+    }
+
+    @Test
+    void permanentRedirectMovesTheFeedOnlyWhenTheTargetWorks() {
+        Feed broken = feedRepository.save(Feed.of(url("/moved-to-nowhere"), "broken", null));
+        Feed moved = feedRepository.save(Feed.of(url("/moved"), "moved", null));
+
+        assertThat(poll(broken).getUrl()).isEqualTo(url("/moved-to-nowhere"));
+        assertThat(poll(moved).getUrl()).isEqualTo(url());
+    }
+
+    private Feed poll(Feed feed) {
+        pollFeedService.pollFeed(feed);
+        entityManager.clear();
+        return feedRepository.findById(feed.getId()).orElseThrow();
+    }
+
+    private String url() {
+        return url("/feed");
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    private static void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().add("Location", location);
+        exchange.sendResponseHeaders(301, -1);
+        exchange.close();
+    }
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.kurama.feedcollector.service;
+
+import com.kurama.feedcollector.entity.Feed;
+import com.kurama.feedcollector.repository.ArticleBatchRepository;
+import com.kurama.feedcollector.repository.FeedRepository;
+import com.kurama.feedcollector.service.dedup.SeenGuidCache;
+import com.kurama.feedcollector.service.fetch.FeedFetcher;
+import com.kurama.feedcollector.service.parser.RomeFeedParser;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.function.ToLongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // keep the scheduled sweep from running queries while statements are being counted
+        "feed.poll.tick-millis=3600000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PollFeedService.class, ArticleBatchRepository.class, RomeFeedParser.class, SeenGuidCache.class, FeedPollingEngine.class, AdaptivePollScheduler.class, HostCircuitBreaker.class, FeedLeaser.class,
+        FeedFetcher.class, PollFeedServiceQueryCountTests.MetricsConfig.class})
+class PollFeedServiceQueryCountTests {
+
+    @Autowired
+    private PollFeedService pollFeedService;
+
+    @Autowired
+    private FeedRepository feedRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/small", exchange -> respond(exchange, rss("small", 10)));
+        server.createContext("/large", exchange -> respond(exchange, rss("large", 100)));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void queryCountPerPollDoesNotDependOnEntryCount() {
+        Feed small = feedRepository.save(Feed.of(baseUrl() + "/small", "small", null));
+        Feed large = feedRepository.save(Feed.of(baseUrl() + "/large", "large", null));
+
+        // First poll: every entry is new, so only the row writes may grow with the entry count
+        long smallQueries = poll(small, Statistics::getQueryExecutionCount);
+        long largeQueries = poll(large, Statistics::getQueryExecutionCount);
+        assertThat(largeQueries).isEqualTo(smallQueries);
+
+        // Steady state: every entry is already known, so the whole poll is a fixed number of statements
+        long smallStatements = poll(small, Statistics::getPrepareStatementCount);
+        long largeStatements = poll(large, Statistics::getPrepareStatementCount);
+        assertThat(largeStatements).isEqualTo(smallStatements);
+    }
+
+    // Flushes around the poll so that statements deferred by the persistence context are attributed to it
+    private long poll(Feed feed, ToLongFunction<Statistics> counter) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        pollFeedService.pollFeed(feed);
+        entityManager.flush();
+        return counter.applyAsLong(statistics);
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private static void respond(com.sun.net.httpserver.HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/rss+xml; charset=UTF-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String rss(String name, int entries) {
+        StringBuilder xml = new StringBuilder("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <rss version="2.0"><channel><title>%s</title><link>http://example.com/%s</link>
+                """.formatted(name, name));
+        for (int i = 0; i < entries; i++) {
+            xml.append("<item><title>Item ").append(i).append("</title>")
+                    .append("<link>http://example.com/").append(name).append('/').append(i).append("</link>")
+                    .append("<guid>").append(name).append('-').append(i).append("</guid>")
+                    .append("<pubDate>Mon, 06 Oct 2025 10:00:00 GMT</pubDate></item>");
+        }
+        return xml.append("</channel></rss>").toString();
+    }
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.kurama.feedcollector.service;
+
+import com.kurama.feedcollector.entity.Feed;
+import com.kurama.feedcollector.repository.ArticleBatchRepository;
+import com.kurama.feedcollector.repository.FeedRepository;
+import com.kurama.feedcollector.service.dedup.SeenGuidCache;
+import com.kurama.feedcollector.service.fetch.FeedFetcher;
+import com.kurama.feedcollector.service.parser.FeedParser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class PollFeedServiceTests {
+
+    private final FeedRepository feedRepository = mock(FeedRepository.class);
+    private final ArticleBatchRepository articleBatchRepository = mock(ArticleBatchRepository.class);
+    private final FeedParser feedParser = mock(FeedParser.class);
+    private final FeedFetcher feedFetcher = mock(FeedFetcher.class);
+    private final FeedLeaser feedLeaser = mock(FeedLeaser.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PollFeedService service = new PollFeedService(feedRepository, articleBatchRepository,
+            mock(FeedPollingEngine.class), meterRegistry,
+            new AdaptivePollScheduler(Duration.ofSeconds(30), Duration.ofHours(6), 2.0, Duration.ofHours(24)),
+            feedParser, mock(SeenGuidCache.class), feedFetcher,
+            new HostCircuitBreaker(meterRegistry, 5, Duration.ofMinutes(1), Duration.ofMinutes(30)), feedLeaser);
+
+    @Test
+    void notModifiedKeepsTheValidatorsAndSkipsParsing() throws Exception {
+        Feed feed = Feed.of("http://unchanged.example/rss", "unchanged", null);
+        feed.setId(UUID.randomUUID());
+        feed.setEtag("\"v1\"");
+        feed.setLastModified("Mon, 06 Oct 2025 10:00:00 GMT");
+        feed.setPollIntervalSeconds(600);
+        when(feedLeaser.getInstanceId()).thenReturn("instance");
+        when(feedFetcher.fetch(feed.getUrl(), "\"v1\"", "Mon, 06 Oct 2025 10:00:00 GMT"))
+                .thenReturn(new FeedFetcher.FetchResponse(304, feed.getUrl(), null, null, null, null, null));
+
+        PollOutcome outcome = service.pollFeed(feed);
+
+        assertThat(outcome.status()).isEqualTo(PollOutcome.Status.NOT_MODIFIED);
+        assertThat(outcome.etag()).isEqualTo("\"v1\"");
+        assertThat(outcome.lastModified()).isEqualTo("Mon, 06 Oct 2025 10:00:00 GMT");
+        verifyNoInteractions(feedParser, articleBatchRepository);
+        // Nothing changed, so the interval doubles
+        verify(feedRepository).updatePollState(eq(feed.getId()), eq("instance"), any(), eq("\"v1\""),
+                eq("Mon, 06 Oct 2025 10:00:00 GMT"), any(), eq(1200));
+        assertThat(meterRegistry.get("feed.poll.responses").tag("status", "304").counter().count()).isEqualTo(1);
+    }
+}
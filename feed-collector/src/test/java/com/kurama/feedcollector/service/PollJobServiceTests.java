@@ -0,0 +1,133 @@
+package com.kurama.feedcollector.service;
+
+import com.kurama.feedcollector.entity.Feed;
+import com.kurama.feedcollector.repository.FeedRepository;
+import com.kurama.feedcollector.service.exception.RateLimitedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PollJobServiceTests {
+
+    private final FeedRepository feedRepository = mock(FeedRepository.class);
+    private final PollFeedService pollFeedService = mock(PollFeedService.class);
+    private final FeedPollingEngine pollingEngine = new FeedPollingEngine(8, 2, Duration.ofSeconds(10), new SimpleMeterRegistry());
+    private final FeedLeaser feedLeaser = mock(FeedLeaser.class);
+    private final PollJobService service = new PollJobService(feedRepository, pollFeedService, pollingEngine,
+            feedLeaser, 100, 6, 2, Duration.ofMinutes(1), 100);
+
+    @BeforeEach
+    void leaseEveryFeed() {
+        when(feedLeaser.tryLease(any())).thenReturn(true);
+    }
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+        pollingEngine.shutdown();
+    }
+
+    @Test
+    void triggersForAFeedBeingPolledJoinTheRunningJob() throws Exception {
+        Feed feed = feed("http://a.example/rss");
+        CountDownLatch release = new CountDownLatch(1);
+        when(pollFeedService.pollFeed(any())).thenAnswer(invocation -> {
+            release.await();
+            return new PollOutcome(PollOutcome.Status.FETCHED, 200, 3, null, null, null, null);
+        });
+
+        PollJob first = service.triggerFeed("client", feed.getId()).orElseThrow();
+        PollJob second = service.triggerFeed("client", feed.getId()).orElseThrow();
+        release.countDown();
+
+        assertThat(second).isSameAs(first);
+        await().atMost(Duration.ofSeconds(10)).until(() -> first.getState() == PollJob.State.DONE);
+        assertThat(first.getNewArticles()).isEqualTo(3);
+        assertThat(first.getHttpStatus()).isEqualTo(200);
+        assertThat(first.getResult()).isEqualTo(PollOutcome.Status.FETCHED);
+        assertThat(first.getLatencyMillis()).isNotNull();
+        assertThat(service.getJob(first.getId())).containsSame(first);
+        verify(pollFeedService, times(1)).pollFeed(any());
+        verify(feedRepository, times(0)).findAllBy(any());
+    }
+
+    @Test
+    void rateLimitsEachCallerSeparately() {
+        Feed feed = feed("http://a.example/rss");
+        when(pollFeedService.pollFeed(any())).thenReturn(PollOutcome.notModified(304, null, null));
+
+        for (int i = 0; i < 2; i++) {
+            PollJob job = service.triggerFeed("client", feed.getId()).orElseThrow();
+            await().atMost(Duration.ofSeconds(10)).until(() -> job.getState() == PollJob.State.DONE);
+        }
+
+        assertThatThrownBy(() -> service.triggerFeed("client", feed.getId()))
+                .isInstanceOf(RateLimitedException.class);
+        assertThat(service.triggerFeed("other-client", feed.getId())).isPresent();
+    }
+
+    @Test
+    void unknownFeedsHaveNoJob() {
+        when(feedRepository.findById(any())).thenReturn(Optional.empty());
+
+        assertThat(service.triggerFeed("client", UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void sweepPollsEveryFeed() {
+        List<Feed> feeds = List.of(feed("http://a.example/rss"), feed("http://b.example/rss"));
+        when(feedRepository.findAllBy(any())).thenReturn(new SliceImpl<>(feeds));
+        when(pollFeedService.pollFeed(any())).thenReturn(new PollOutcome(PollOutcome.Status.FETCHED, 200, 2, null, null, null, null));
+
+        PollJob job = service.triggerAll("client");
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> job.getState() == PollJob.State.DONE);
+        assertThat(job.getFeedsPolled()).isEqualTo(2);
+        assertThat(job.getNewArticles()).isEqualTo(4);
+        assertThat(job.getFeedId()).isNull();
+    }
+
+    @Test
+    void skipsFeedsLeasedByAnotherPoll() {
+        List<Feed> feeds = List.of(feed("http://a.example/rss"), feed("http://b.example/rss"));
+        when(feedLeaser.tryLease(feeds.get(0).getId())).thenReturn(false);
+        when(feedRepository.findAllBy(any())).thenReturn(new SliceImpl<>(feeds));
+        when(pollFeedService.pollFeed(any())).thenReturn(PollOutcome.notModified(304, null, null));
+
+        PollJob single = service.triggerFeed("client", feeds.get(0).getId()).orElseThrow();
+        PollJob sweep = service.triggerAll("client");
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> single.getState() == PollJob.State.FAILED
+                && sweep.getState() == PollJob.State.DONE);
+        assertThat(single.getError()).isEqualTo("Feed is already being polled");
+        assertThat(single.getFeedsPolled()).isZero();
+        assertThat(single.getFeedsSkipped()).isEqualTo(1);
+        assertThat(sweep.getFeedsPolled()).isEqualTo(1);
+        assertThat(sweep.getFeedsSkipped()).isEqualTo(1);
+        verify(pollFeedService, times(1)).pollFeed(feeds.get(1));
+    }
+
+    private Feed feed(String url) {
+        Feed feed = Feed.of(url, null, null);
+        feed.setId(UUID.randomUUID());
+        when(feedRepository.findById(feed.getId())).thenReturn(Optional.of(feed));
+        return feed;
+    }
+}
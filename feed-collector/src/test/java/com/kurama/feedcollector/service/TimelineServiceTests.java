@@ -0,0 +1,120 @@
+package com.kurama.feedcollector.service;
+
+import com.kurama.feedcollector.dto.ArticleSummary;
+import com.kurama.feedcollector.dto.CursorPage;
+import com.kurama.feedcollector.entity.Article;
+import com.kurama.feedcollector.repository.ArticleRepository;
+import com.kurama.feedcollector.repository.TimelineRepository;
+import com.kurama.feedcollector.service.exception.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// A chunk size below the feed count makes the merge span several queries
+@DataJpaTest(properties = "feed.timeline.chunk-size=2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TimelineService.class, TimelineRepository.class})
+class TimelineServiceTests {
+
+    private static final List<UUID> FEED_IDS = IntStream.range(0, 5).mapToObj(i -> UUID.randomUUID()).toList();
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    private List<Article> stored;
+
+    @BeforeEach
+    void storeArticles() {
+        // Feeds interleave in time, share publish dates across feeds and hold undated articles
+        stored = articleRepository.saveAllAndFlush(IntStream.range(0, 40)
+                .mapToObj(i -> Article.builder()
+                        .guid("guid-%02d".formatted(i))
+                        .title("Article " + i)
+                        .feedId(FEED_IDS.get(i % FEED_IDS.size()))
+                        .publishDate(i % 7 == 0 ? null : new Date(1_759_744_800_000L + (i / 4) * 60_000L))
+                        .build())
+                .toList());
+        articleRepository.saveAndFlush(Article.builder().guid("other").feedId(UUID.randomUUID()).publishDate(new Date()).build());
+    }
+
+    @Test
+    void pagesThroughTheMergedFeedsInOrder() {
+        List<String> expected = stored.stream()
+                .filter(article -> article.getPublishDate() != null)
+                .sorted(Comparator.comparing(Article::getPublishDate).thenComparing(Article::getGuid).reversed())
+                .map(Article::getGuid)
+                .toList();
+
+        List<String> merged = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<ArticleSummary> page = timelineService.timeline(FEED_IDS, cursor, 6);
+            page.getItems().forEach(article -> merged.add(article.guid()));
+            assertThat(page.isHasNext()).isEqualTo(page.getNextCursor() != null);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(merged).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void breaksPublishDateTiesInTheSameGuidOrderAsTheDatabase() {
+        // URL guids differing in case and punctuation, all published at once
+        Date tie = new Date(1_759_831_200_000L);
+        List<String> guids = List.of("https://example.com/A-post", "https://example.com/a-post",
+                "https://example.com/a_post", "https://example.com/apost", "https://example.com/a.post",
+                "https://Example.com/a-post", "https://example.com/?p=123", "https://example.com/?p=99");
+        for (int i = 0; i < guids.size(); i++) {
+            articleRepository.save(Article.builder().guid(guids.get(i)).feedId(FEED_IDS.get(i % 3)).publishDate(tie).build());
+        }
+        articleRepository.flush();
+        List<String> expected = guids.stream().sorted(TimelineService::compareCodePoints).toList().reversed();
+
+        List<String> merged = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<ArticleSummary> page = timelineService.timeline(FEED_IDS.subList(0, 3), cursor, 3);
+            page.getItems().stream()
+                    .filter(article -> article.publishDate().equals(tie))
+                    .forEach(article -> merged.add(article.guid()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(merged).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void onlyIncludesRequestedFeeds() {
+        CursorPage<ArticleSummary> page = timelineService.timeline(List.of(FEED_IDS.get(1), FEED_IDS.get(3)), null, 100);
+
+        assertThat(page.getItems()).isNotEmpty()
+                .allMatch(article -> article.feedId().equals(FEED_IDS.get(1)) || article.feedId().equals(FEED_IDS.get(3)));
+        assertThat(page.isHasNext()).isFalse();
+    }
+
+    @Test
+    void rejectsInvalidRequests() {
+        assertThatThrownBy(() -> timelineService.timeline(List.of(), null, 8))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> timelineService.timeline(FEED_IDS, null, 0))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> timelineService.timeline(FEED_IDS, "not a cursor", 8))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
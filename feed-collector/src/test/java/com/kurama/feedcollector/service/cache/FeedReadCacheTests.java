@@ -0,0 +1,85 @@
+package com.kurama.feedcollector.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kurama.feedcollector.dto.ArticleSummary;
+import com.kurama.feedcollector.dto.PagedResponse;
+import com.kurama.feedcollector.entity.Article;
+import com.kurama.feedcollector.service.ArticlesIngestedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedReadCacheTests {
+
+    private static final UUID FEED = UUID.randomUUID();
+    private static final UUID OTHER_FEED = UUID.randomUUID();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FeedReadCache cache = new FeedReadCache(new ObjectMapper(), meterRegistry,
+            Duration.ofMinutes(1), Duration.ofMinutes(5), 100, 2);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void ingestEvictsOnlyThatFeedsPages() {
+        String etag = cache.articlePage(FEED, 0, 8, () -> page("a")).etag();
+        cache.articlePage(OTHER_FEED, 0, 8, () -> page("x"));
+        assertThat(cache.articlePage(FEED, 0, 8, () -> page("a")).etag()).isEqualTo(etag);
+        assertThat(loads).hasValue(2);
+
+        cache.onArticlesIngested(new ArticlesIngestedEvent(FEED, List.of(Article.builder().guid("new").feedId(FEED).build())));
+
+        assertThat(cache.articlePage(FEED, 0, 8, () -> page("b")).etag()).isNotEqualTo(etag);
+        cache.articlePage(OTHER_FEED, 0, 8, () -> page("x"));
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void pageLoadedWhileAnIngestCommitsIsNotKept() {
+        cache.articlePage(FEED, 0, 8, () -> {
+            PagedResponse<ArticleSummary> stale = page("a");
+            cache.onArticlesIngested(new ArticlesIngestedEvent(FEED, List.of(Article.builder().guid("new").feedId(FEED).build())));
+            return stale;
+        });
+
+        cache.articlePage(FEED, 0, 8, () -> page("new"));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void deepPagesAreNotCached() {
+        cache.articlePage(FEED, 2, 8, () -> page("a"));
+        cache.articlePage(FEED, 2, 8, () -> page("a"));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void exportsHitsAndMisses() {
+        cache.feeds(List::of);
+        cache.feeds(List::of);
+        cache.evictFeeds();
+        cache.feeds(List::of);
+
+        assertThat(meterRegistry.get("cache.gets").tags("cache", "feeds", "result", "hit").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tags("cache", "feeds", "result", "miss").functionCounter().count())
+                .isEqualTo(2);
+    }
+
+    private PagedResponse<ArticleSummary> page(String guid) {
+        loads.incrementAndGet();
+        return PagedResponse.<ArticleSummary>builder()
+                .items(List.of(new ArticleSummary(guid, "Title", null, null, null, null, FEED)))
+                .size(8)
+                .build();
+    }
+}
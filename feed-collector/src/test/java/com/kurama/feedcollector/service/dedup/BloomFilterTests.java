@@ -0,0 +1,43 @@
+package com.kurama.feedcollector.service.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTests {
+
+    private static final int INSERTIONS = 100_000;
+
+    @Test
+    void neverForgetsAValueThatWasPut() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+        IntStream.range(0, INSERTIONS).forEach(i -> filter.put(guid(i)));
+
+        assertThat(IntStream.range(0, INSERTIONS).filter(i -> !filter.mightContain(guid(i))).count()).isZero();
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredRateAtCapacity() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+        IntStream.range(0, INSERTIONS).forEach(i -> filter.put(guid(i)));
+
+        long falsePositives = IntStream.range(INSERTIONS, 2 * INSERTIONS)
+                .filter(i -> filter.mightContain(guid(i)))
+                .count();
+
+        assertThat((double) falsePositives / INSERTIONS).isBetween(0.005, 0.015);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+
+        assertThat(IntStream.range(0, 1000).anyMatch(i -> filter.mightContain(guid(i)))).isFalse();
+    }
+
+    private static String guid(int i) {
+        return "https://example.com/posts/" + i;
+    }
+}
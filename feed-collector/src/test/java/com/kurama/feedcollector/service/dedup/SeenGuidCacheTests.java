@@ -0,0 +1,91 @@
+package com.kurama.feedcollector.service.dedup;
+
+import com.kurama.feedcollector.repository.ArticleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SeenGuidCacheTests {
+
+    private static final UUID FEED = UUID.randomUUID();
+
+    private final ArticleRepository articleRepository = mock(ArticleRepository.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void emptyFeed() {
+        when(articleRepository.findRecentGuids(any(), any())).thenReturn(List.of());
+    }
+
+    @Test
+    void recentGuidsAreEvictedOnceTheFeedIsAtCapacity() {
+        SeenGuidCache cache = new SeenGuidCache(articleRepository, meterRegistry, 3, 1000, 0.01);
+
+        cache.markKnown(FEED, List.of("a", "b", "c"));
+        assertThat(Stream.of("a", "b", "c").allMatch(guid -> cache.isRecentlySeen(FEED, guid))).isTrue();
+
+        cache.markKnown(FEED, List.of("d"));
+
+        assertThat(cache.isRecentlySeen(FEED, "a")).isFalse();
+        assertThat(Stream.of("b", "c", "d").allMatch(guid -> cache.isRecentlySeen(FEED, guid))).isTrue();
+        assertThat(cache.isRecentlySeen(UUID.randomUUID(), "d")).isFalse();
+    }
+
+    @Test
+    void definiteNegativesSkipTheDatabase() {
+        when(articleRepository.streamAllGuids()).thenReturn(Stream.of("stored-1", "stored-2"));
+        SeenGuidCache cache = new SeenGuidCache(articleRepository, meterRegistry, 16, 1000, 0.01);
+        cache.warmUp();
+
+        assertThat(cache.findKnown(FEED, List.of("new-1", "new-2"))).isEmpty();
+
+        verify(articleRepository, never()).findExistingGuids(anyCollection());
+        assertThat(lookups("bloom_negative")).isEqualTo(2);
+    }
+
+    @Test
+    void bloomFalsePositivesAreSettledByTheDatabase() {
+        // Sized for one GUID but holding a thousand: every bit is set, so every lookup is a maybe
+        when(articleRepository.streamAllGuids())
+                .thenReturn(IntStream.range(0, 1000).mapToObj(i -> "stored-" + i));
+        when(articleRepository.findExistingGuids(anyCollection())).thenReturn(List.of("stored-1"));
+        SeenGuidCache cache = new SeenGuidCache(articleRepository, meterRegistry, 16, 1, 0.01);
+        cache.warmUp();
+
+        assertThat(cache.findKnown(FEED, List.of("stored-1", "never-stored"))).containsExactly("stored-1");
+
+        assertThat(lookups("db_hit")).isEqualTo(1);
+        assertThat(lookups("false_positive")).isEqualTo(1);
+        // The database answer is remembered for the feed
+        assertThat(cache.isRecentlySeen(FEED, "stored-1")).isTrue();
+    }
+
+    @Test
+    void everyMissGoesToTheDatabaseUntilWarm() {
+        when(articleRepository.findExistingGuids(anyCollection())).thenReturn(List.of());
+        SeenGuidCache cache = new SeenGuidCache(articleRepository, meterRegistry, 16, 1000, 0.01);
+
+        assertThat(cache.findKnown(FEED, List.of("new-1"))).isEmpty();
+
+        verify(articleRepository).findExistingGuids(List.of("new-1"));
+        assertThat(lookups("cold_miss")).isEqualTo(1);
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("feed.dedup.lookups").tag("result", result).counter().count();
+    }
+}
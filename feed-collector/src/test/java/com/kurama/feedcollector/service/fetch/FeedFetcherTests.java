@@ -0,0 +1,198 @@
+package com.kurama.feedcollector.service.fetch;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeedFetcherTests {
+
+    private static final String FEED = "<rss version=\"2.0\"><channel><title>t</title></channel></rss>";
+
+    private final FeedFetcher fetcher = new FeedFetcher("TestAgent/1.0", Duration.ofSeconds(5), Duration.ofSeconds(5),
+            DataSize.ofKilobytes(1), 5);
+    private final Map<String, String> requestHeaders = new ConcurrentHashMap<>();
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/gzip", exchange -> {
+            requestHeaders.put("User-Agent", exchange.getRequestHeaders().getFirst("User-Agent"));
+            requestHeaders.put("Accept-Encoding", exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            respond(exchange, 200, gzip(FEED));
+        });
+        server.createContext("/conditional", exchange -> {
+            requestHeaders.put("If-None-Match", String.valueOf(exchange.getRequestHeaders().getFirst("If-None-Match")));
+            requestHeaders.put("If-Modified-Since",
+                    String.valueOf(exchange.getRequestHeaders().getFirst("If-Modified-Since")));
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            exchange.getResponseHeaders().add("Last-Modified", "Mon, 06 Oct 2025 10:00:00 GMT");
+            respond(exchange, 200, FEED.getBytes(StandardCharsets.UTF_8));
+        });
+        server.createContext("/moved", exchange -> redirect(exchange, 301, "/moved-again"));
+        server.createContext("/moved-again", exchange -> redirect(exchange, 308, "/temporary"));
+        server.createContext("/temporary", exchange -> redirect(exchange, 302, "/gzip"));
+        server.createContext("/loop", exchange -> redirect(exchange, 301, "/loop"));
+        server.createContext("/large", exchange -> respond(exchange, 200, "x".repeat(2048).getBytes(StandardCharsets.UTF_8)));
+        server.createContext("/trickle", exchange -> trickle(exchange, 100));
+        server.createContext("/stalled", exchange -> trickle(exchange, 10_000));
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        fetcher.shutdown();
+    }
+
+    @Test
+    void decodesCompressedBodies() throws Exception {
+        try (FeedFetcher.FetchResponse response = fetcher.fetch(url("/gzip"), null, null)) {
+            assertThat(response.status()).isEqualTo(200);
+            assertThat(response.etag()).isEqualTo("\"v1\"");
+            assertThat(new String(response.body().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(FEED);
+        }
+        assertThat(requestHeaders).containsEntry("User-Agent", "TestAgent/1.0")
+                .containsEntry("Accept-Encoding", "gzip, br, deflate");
+    }
+
+    @Test
+    void sendsStoredValidatorsAndReturnsNotModifiedWithoutABody() throws Exception {
+        String etag;
+        String lastModified;
+        try (FeedFetcher.FetchResponse response = fetcher.fetch(url("/conditional"), null, null)) {
+            assertThat(response.status()).isEqualTo(200);
+            etag = response.etag();
+            lastModified = response.lastModified();
+        }
+        assertThat(requestHeaders).containsEntry("If-None-Match", "null").containsEntry("If-Modified-Since", "null");
+
+        try (FeedFetcher.FetchResponse response = fetcher.fetch(url("/conditional"), etag, lastModified)) {
+            assertThat(response.status()).isEqualTo(304);
+            assertThat(response.body()).isNull();
+        }
+        assertThat(requestHeaders).containsEntry("If-None-Match", "\"v1\"")
+                .containsEntry("If-Modified-Since", "Mon, 06 Oct 2025 10:00:00 GMT");
+    }
+
+    @Test
+    void reportsOnlyTheLeadingPermanentRedirects() throws Exception {
+        try (FeedFetcher.FetchResponse response = fetcher.fetch(url("/moved"), null, null)) {
+            assertThat(response.status()).isEqualTo(200);
+            assertThat(response.url()).isEqualTo(url("/gzip"));
+            assertThat(response.permanentUrl()).isEqualTo(url("/temporary"));
+        }
+        try (FeedFetcher.FetchResponse response = fetcher.fetch(url("/temporary"), null, null)) {
+            assertThat(response.permanentUrl()).isNull();
+        }
+    }
+
+    @Test
+    void stopsFollowingRedirectLoops() {
+        assertThatThrownBy(() -> fetcher.fetch(url("/loop"), null, null))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("redirects");
+    }
+
+    @Test
+    void capsTheBodySize() {
+        assertThatThrownBy(() -> {
+            try (FeedFetcher.FetchResponse response = fetcher.fetch(url("/large"), null, null)) {
+                response.body().readAllBytes();
+            }
+        }).isInstanceOf(IOException.class).hasMessageContaining("larger than");
+    }
+
+    @Test
+    void bodyThatTricklesInFailsAtTheDeadline() {
+        assertBodyTimesOut("/trickle");
+    }
+
+    @Test
+    void bodyThatStopsArrivingFailsAtTheDeadline() {
+        assertBodyTimesOut("/stalled");
+    }
+
+    private void assertBodyTimesOut(String path) {
+        FeedFetcher impatient = new FeedFetcher("TestAgent/1.0", Duration.ofSeconds(5), Duration.ofMillis(500),
+                DataSize.ofKilobytes(1), 5);
+        long start = System.nanoTime();
+        try {
+            assertThatThrownBy(() -> {
+                try (FeedFetcher.FetchResponse response = impatient.fetch(url(path), null, null)) {
+                    response.body().readAllBytes();
+                }
+            }).isInstanceOf(HttpTimeoutException.class);
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(3));
+        } finally {
+            impatient.shutdown();
+        }
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    private static void redirect(HttpExchange exchange, int status, String location) throws IOException {
+        exchange.getResponseHeaders().add("Location", location);
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    // Sends headers, then one byte per pause until the client hangs up
+    private static void trickle(HttpExchange exchange, long pauseMillis) throws IOException {
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write('<');
+            out.flush();
+            for (int i = 0; i < 50; i++) {
+                Thread.sleep(pauseMillis);
+                out.write(' ');
+                out.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,80 @@
+package com.kurama.feedcollector.service.live;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kurama.feedcollector.controller.FeedController;
+import com.kurama.feedcollector.entity.Article;
+import com.kurama.feedcollector.service.ArticleMapper;
+import com.kurama.feedcollector.service.ArticlesIngestedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class ArticleStreamHubTests {
+
+    private static final UUID FEED = UUID.randomUUID();
+    private static final UUID OTHER_FEED = UUID.randomUUID();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void pushesNewArticlesToSubscribersOfTheirFeed() throws Exception {
+        // Writes run on the publishing thread, so the response holds every event once publishing returns
+        ArticleStreamHub hub = hub(8, 10, Runnable::run);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new FeedController(null, null, null, null, hub)).build();
+        MvcResult result = mockMvc.perform(get("/api/v1/feed/{feedId}/stream", FEED))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        hub.onArticlesIngested(new ArticlesIngestedEvent(OTHER_FEED, List.of(article("other", OTHER_FEED))));
+        hub.onArticlesIngested(new ArticlesIngestedEvent(FEED, List.of(article("first", FEED), article("second", FEED))));
+
+        String body = result.getResponse().getContentAsString();
+        assertThat(body).contains("id:first", "id:second", "event:article", "\"title\":\"Article first\"")
+                .doesNotContain("other");
+        assertThat(meterRegistry.get("feed.stream.events").tag("outcome", "sent").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void dropsSubscribersThatFallBehind() {
+        // Writers never run, so every offered event stays queued
+        ArticleStreamHub hub = hub(2, 10, task -> { });
+        hub.subscribe(FEED).orElseThrow();
+        hub.subscribe(OTHER_FEED).orElseThrow();
+
+        hub.onArticlesIngested(new ArticlesIngestedEvent(FEED,
+                List.of(article("a", FEED), article("b", FEED), article("c", FEED))));
+
+        assertThat(hub.subscriberCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("feed.stream.events").tag("outcome", "dropped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void refusesSubscribersBeyondTheLimit() {
+        ArticleStreamHub hub = hub(8, 1, Runnable::run);
+
+        assertThat(hub.subscribe(FEED)).isPresent();
+        assertThat(hub.subscribe(OTHER_FEED)).isEmpty();
+        assertThat(meterRegistry.get("feed.stream.subscribers").gauge().value()).isEqualTo(1);
+    }
+
+    private ArticleStreamHub hub(int bufferSize, int maxSubscribers, Executor writer) {
+        return new ArticleStreamHub(new ObjectMapper(), new ArticleMapper(), meterRegistry,
+                bufferSize, maxSubscribers, Duration.ofMinutes(1), writer);
+    }
+
+    private static Article article(String guid, UUID feedId) {
+        return Article.builder().guid(guid).title("Article " + guid).feedId(feedId).build();
+    }
+}
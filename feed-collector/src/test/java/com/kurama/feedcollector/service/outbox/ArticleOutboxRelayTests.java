@@ -0,0 +1,167 @@
+package com.kurama.feedcollector.service.outbox;
+
+import com.kurama.feedcollector.entity.Article;
+import com.kurama.feedcollector.entity.ArticleOutbox;
+import com.kurama.feedcollector.repository.ArticleBatchRepository;
+import com.kurama.feedcollector.repository.ArticleOutboxRepository;
+import com.kurama.feedcollector.service.ArticleMapper;
+import com.kurama.feedcollector.service.ArticlesIngestedEvent;
+import com.kurama.feedcollector.service.KafkaArticleProducerService;
+import com.kurama.schema.ArticleMessage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "feed.outbox.poll-millis=3600000",
+        "feed.outbox.purge-millis=3600000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@RecordApplicationEvents
+@Import({ArticleOutboxRelay.class, ArticleBatchRepository.class, ArticleMapper.class, ArticleOutboxRelayTests.MetricsConfig.class})
+class ArticleOutboxRelayTests {
+
+    @Autowired
+    private ArticleOutboxRelay relay;
+
+    @Autowired
+    private ArticleBatchRepository articleBatchRepository;
+
+    @Autowired
+    private ArticleOutboxRepository outboxRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockitoBean
+    private KafkaArticleProducerService kafkaArticleProducerService;
+
+    @Test
+    void onlyInsertedArticlesAreQueued() {
+        articleBatchRepository.insertAndEnqueue(List.of(article("a"), article("b")));
+
+        List<String> inserted = articleBatchRepository.insertAndEnqueue(List.of(article("b"), article("c")));
+
+        assertThat(inserted).containsExactly("c");
+        assertThat(outboxRepository.findAll()).extracting(ArticleOutbox::getArticleGuid)
+                .containsExactlyInAnyOrder("a", "b", "c");
+    }
+
+    @Test
+    void insertedArticlesAreAnnouncedPerFeed(@Autowired ApplicationEvents events) {
+        Article first = article("first");
+        articleBatchRepository.insertAndEnqueue(List.of(first, article("second")));
+        articleBatchRepository.insertAndEnqueue(List.of(first));
+
+        assertThat(events.stream(ArticlesIngestedEvent.class))
+                .hasSize(2)
+                .allSatisfy(event -> assertThat(event.count()).isEqualTo(1))
+                .anySatisfy(event -> assertThat(event.feedId()).isEqualTo(first.getFeedId()));
+    }
+
+    @Test
+    void acknowledgedSendsRecordOffsetsAndFailedSendsBackOff() {
+        articleBatchRepository.insertAndEnqueue(List.of(article("ok"), article("broken")));
+        when(kafkaArticleProducerService.publish(any())).thenAnswer(invocation -> {
+            ArticleMessage message = invocation.getArgument(0);
+            return "ok".equals(message.getGuid())
+                    ? CompletableFuture.completedFuture(acknowledged(message, 42))
+                    : CompletableFuture.failedFuture(new KafkaException("broker unavailable"));
+        });
+
+        assertThat(relay.relayBatch()).isEqualTo(2);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ArticleOutbox> rows = outboxRepository.findAll().stream()
+                .sorted(Comparator.comparing(ArticleOutbox::getArticleGuid))
+                .toList();
+        ArticleOutbox broken = rows.get(0);
+        ArticleOutbox ok = rows.get(1);
+        assertThat(ok.getPublishedAt()).isNotNull();
+        assertThat(ok.getKafkaOffset()).isEqualTo(42);
+        assertThat(broken.getPublishedAt()).isNull();
+        assertThat(broken.getAttempts()).isEqualTo(1);
+        assertThat(broken.getNextAttemptAt()).isAfter(Instant.now());
+        assertThat(broken.getLastError()).contains("broker unavailable");
+
+        // Neither row is due again: one is published, the other is backing off
+        assertThat(relay.relayBatch()).isZero();
+    }
+
+    @Test
+    void sendThatBlocksFailsTheRestOfTheBatchWithoutTryingIt() {
+        articleBatchRepository.insertAndEnqueue(List.of(article("a"), article("b"), article("c")));
+        when(kafkaArticleProducerService.publish(any()))
+                .thenThrow(new KafkaException("Topic NEW_ARTICLES not present in metadata after 5000 ms."));
+
+        assertThat(relay.relayBatch()).isEqualTo(3);
+        entityManager.flush();
+        entityManager.clear();
+
+        verify(kafkaArticleProducerService, times(1)).publish(any());
+        assertThat(outboxRepository.findAll()).hasSize(3).allSatisfy(row -> {
+            assertThat(row.getPublishedAt()).isNull();
+            assertThat(row.getAttempts()).isEqualTo(1);
+            assertThat(row.getLastError()).contains("not present in metadata");
+        });
+    }
+
+    @Test
+    void emptyOutboxSendsNothing() {
+        assertThat(relay.relayBatch()).isZero();
+        verify(kafkaArticleProducerService, never()).publish(any());
+    }
+
+    private static Article article(String guid) {
+        return Article.builder()
+                .guid(guid)
+                .title(guid)
+                .link("http://example.com/" + guid)
+                .publishDate(new Date())
+                .feedId(UUID.randomUUID())
+                .build();
+    }
+
+    private static SendResult<String, ArticleMessage> acknowledged(ArticleMessage message, long offset) {
+        RecordMetadata metadata = new RecordMetadata(new TopicPartition("NEW_ARTICLES", 0), offset, 0, 0L, 0, 0);
+        return new SendResult<>(new ProducerRecord<>("NEW_ARTICLES", message.getGuid(), message), metadata);
+    }
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
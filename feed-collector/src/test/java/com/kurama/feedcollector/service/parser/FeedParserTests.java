@@ -0,0 +1,194 @@
+package com.kurama.feedcollector.service.parser;
+
+import com.kurama.feedcollector.entity.Article;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class FeedParserTests {
+
+    private static final UUID FEED_ID = UUID.randomUUID();
+
+    private static final String RSS = """
+            <?xml version="1.0" encoding="%s"?>
+            <rss version="2.0" xmlns:dc="http://purl.org/dc/elements/1.1/"
+                 xmlns:content="http://purl.org/rss/1.0/modules/content/"
+                 xmlns:sy="http://purl.org/rss/1.0/modules/syndication/">
+              <channel>
+                <title>Example</title>
+                <link>http://example.com/</link>
+                <ttl>60</ttl>
+                <sy:updatePeriod>daily</sy:updatePeriod>
+                <sy:updateFrequency>2</sy:updateFrequency>
+                <item>
+                  <title>Crème brûlée</title>
+                  <link>http://example.com/2</link>
+                  <guid>guid-2</guid>
+                  <description>Second</description>
+                  <dc:creator>Alice</dc:creator>
+                  <category>Food</category>
+                  <pubDate>Tue, 07 Oct 2025 10:00:00 GMT</pubDate>
+                  <content:encoded><![CDATA[<p>Full text</p>]]></content:encoded>
+                </item>
+                <item>
+                  <title>First</title>
+                  <link>http://example.com/1</link>
+                  <author>bob@example.com</author>
+                  <pubDate>Mon, 06 Oct 2025 10:00:00 GMT</pubDate>
+                </item>
+              </channel>
+            </rss>
+            """;
+
+    private static final String ATOM = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <feed xmlns="http://www.w3.org/2005/Atom">
+              <title>Example</title>
+              <id>urn:feed</id>
+              <updated>2025-10-07T10:00:00Z</updated>
+              <entry>
+                <title>Atom entry</title>
+                <id>urn:entry:1</id>
+                <link rel="self" href="http://example.com/self"/>
+                <link rel="alternate" href="http://example.com/atom/1"/>
+                <author><name>Bob</name></author>
+                <category term="Tech"/>
+                <published>2025-10-07T10:00:00Z</published>
+                <updated>2025-10-07T11:00:00Z</updated>
+                <summary>Summary</summary>
+                <content type="html">&lt;p&gt;Body&lt;/p&gt;</content>
+              </entry>
+            </feed>
+            """;
+
+    // Extension elements whose local names collide with the core item/entry fields
+    private static final String RSS_WITH_EXTENSIONS = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <rss version="2.0" xmlns:atom="http://www.w3.org/2005/Atom"
+                 xmlns:itunes="http://www.itunes.com/dtds/podcast-1.0.dtd"
+                 xmlns:media="http://search.yahoo.com/mrss/">
+              <channel>
+                <title>Podcast</title>
+                <link>http://example.com/</link>
+                <item>
+                  <title>Episode 1</title>
+                  <itunes:title>iTunes title</itunes:title>
+                  <link>http://example.com/ep/1</link>
+                  <atom:link rel="self" href="http://example.com/ep/1.xml"/>
+                  <description>Show notes</description>
+                  <media:title>Media title</media:title>
+                  <media:description>Media description</media:description>
+                  <itunes:author>Someone else</itunes:author>
+                  <pubDate>Tue, 07 Oct 2025 10:00:00 GMT</pubDate>
+                </item>
+                <item>
+                  <title>Episode 0</title>
+                  <atom:link rel="self" href="http://example.com/ep/0.xml"/>
+                  <link>http://example.com/ep/0</link>
+                  <pubDate>Mon, 06 Oct 2025 10:00:00 GMT</pubDate>
+                </item>
+              </channel>
+            </rss>
+            """;
+
+    private static final String ATOM_WITH_EXTENSIONS = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <feed xmlns="http://www.w3.org/2005/Atom" xmlns:media="http://search.yahoo.com/mrss/">
+              <title>Example</title>
+              <id>urn:feed</id>
+              <updated>2025-10-07T10:00:00Z</updated>
+              <entry>
+                <title>Atom entry</title>
+                <media:title>Media title</media:title>
+                <id>urn:entry:2</id>
+                <link rel="alternate" href="http://example.com/atom/2"/>
+                <published>2025-10-07T10:00:00Z</published>
+                <content type="html">&lt;p&gt;Body&lt;/p&gt;</content>
+                <media:content url="http://example.com/video.mp4" medium="video"/>
+              </entry>
+            </feed>
+            """;
+
+    private final FeedParser rome = new RomeFeedParser(500);
+    private final FeedParser stax = new StaxFeedParser(500);
+
+    @Test
+    void staxMatchesRomeForRss() throws Exception {
+        assertSameArticles(RSS.formatted("UTF-8").getBytes(StandardCharsets.UTF_8), "application/rss+xml");
+    }
+
+    @Test
+    void staxMatchesRomeForAtom() throws Exception {
+        assertSameArticles(ATOM.getBytes(StandardCharsets.UTF_8), "application/atom+xml");
+    }
+
+    @Test
+    void staxIgnoresExtensionElementsLikeRome() throws Exception {
+        assertSameArticles(RSS_WITH_EXTENSIONS.getBytes(StandardCharsets.UTF_8), "application/rss+xml");
+        assertSameArticles(ATOM_WITH_EXTENSIONS.getBytes(StandardCharsets.UTF_8), "application/atom+xml");
+
+        List<Article> rss = parse(stax, RSS_WITH_EXTENSIONS.getBytes(StandardCharsets.UTF_8), null);
+        assertThat(rss).extracting(Article::getTitle, Article::getDescription, Article::getGuid).containsExactly(
+                tuple("Episode 1", "Show notes", "http://example.com/ep/1"),
+                tuple("Episode 0", null, "http://example.com/ep/0"));
+        assertThat(parse(stax, ATOM_WITH_EXTENSIONS.getBytes(StandardCharsets.UTF_8), null))
+                .extracting(Article::getTitle, Article::getContent)
+                .containsExactly(tuple("Atom entry", "<p>Body</p>"));
+    }
+
+    @Test
+    void honorsEncodingDeclaredInProlog() throws Exception {
+        byte[] latin1 = RSS.formatted("ISO-8859-1").getBytes(Charset.forName("ISO-8859-1"));
+
+        List<Article> articles = parse(stax, latin1, "text/xml");
+
+        assertThat(articles.get(0).getTitle()).isEqualTo("Crème brûlée");
+    }
+
+    @Test
+    void stopsAtFirstKnownGuid() throws Exception {
+        List<Article> seen = new ArrayList<>();
+        stax.parse(new ByteArrayInputStream(RSS.formatted("UTF-8").getBytes(StandardCharsets.UTF_8)), null, FEED_ID,
+                article -> {
+                    seen.add(article);
+                    return !"guid-2".equals(article.getGuid());
+                });
+
+        assertThat(seen).extracting(Article::getGuid).containsExactly("guid-2");
+    }
+
+    @Test
+    void reportsLongestPublisherHint() throws Exception {
+        byte[] rss = RSS.formatted("UTF-8").getBytes(StandardCharsets.UTF_8);
+
+        Duration staxHint = stax.parse(new ByteArrayInputStream(rss), null, FEED_ID, article -> true);
+        Duration romeHint = rome.parse(new ByteArrayInputStream(rss), null, FEED_ID, article -> true);
+
+        assertThat(staxHint).isEqualTo(Duration.ofHours(12)).isEqualTo(romeHint);
+    }
+
+    private void assertSameArticles(byte[] document, String contentType) throws Exception {
+        List<Article> expected = parse(rome, document, contentType);
+        List<Article> actual = parse(stax, document, contentType);
+
+        assertThat(actual).isNotEmpty();
+        assertThat(actual)
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(expected);
+    }
+
+    private static List<Article> parse(FeedParser parser, byte[] document, String contentType) throws Exception {
+        List<Article> articles = new ArrayList<>();
+        parser.parse(new ByteArrayInputStream(document), contentType, FEED_ID, articles::add);
+        return articles;
+    }
+}
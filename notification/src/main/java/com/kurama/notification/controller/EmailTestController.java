@@ -1,6 +1,7 @@
 package com.kurama.notification.controller;
 
 import com.kurama.notification.service.EmailService;
+import com.kurama.notification.service.template.EmailTemplates;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -20,6 +21,7 @@ import java.util.Map;
 public class EmailTestController {
 
     private final EmailService emailService;
+    private final EmailTemplates emailTemplates;
 
     /**
      * Send a test email
@@ -39,7 +41,7 @@ public class EmailTestController {
             String body = request.get("body");
 
             log.info("Sending test email to: {}", to);
-            emailService.send(to, subject, body);
+            emailService.send(to, subject, body).join();
 
             Map<String, String> response = new HashMap<>();
             response.put("status", "success");
@@ -73,7 +75,7 @@ public class EmailTestController {
             String body = (String) request.get("body");
 
             log.info("Sending bulk email to {} recipients", to.length);
-            emailService.send(to, subject, body);
+            emailService.send(to, subject, body).join();
 
             Map<String, String> response = new HashMap<>();
             response.put("status", "success");
@@ -103,45 +105,10 @@ public class EmailTestController {
             String to = request.get("to");
             String name = request.getOrDefault("name", "User");
 
-            // Create a simple welcome email HTML
-            String htmlBody = String.format("""
-                    <!DOCTYPE html>
-                    <html>
-                    <head>
-                        <style>
-                            body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
-                            .container { max-width: 600px; margin: 0 auto; padding: 20px; }
-                            .header { background: #4CAF50; color: white; padding: 20px; text-align: center; }
-                            .content { padding: 20px; background: #f9f9f9; }
-                            .footer { text-align: center; padding: 20px; color: #666; font-size: 12px; }
-                        </style>
-                    </head>
-                    <body>
-                        <div class="container">
-                            <div class="header">
-                                <h1>Welcome to Our Platform!</h1>
-                            </div>
-                            <div class="content">
-                                <h2>Hello %s,</h2>
-                                <p>Thank you for joining our platform. We're excited to have you on board!</p>
-                                <p>Here's what you can do next:</p>
-                                <ul>
-                                    <li>Complete your profile</li>
-                                    <li>Explore our features</li>
-                                    <li>Connect with other users</li>
-                                </ul>
-                                <p>If you have any questions, feel free to reach out to our support team.</p>
-                            </div>
-                            <div class="footer">
-                                <p>&copy; 2025 Kurama Platform. All rights reserved.</p>
-                            </div>
-                        </div>
-                    </body>
-                    </html>
-                    """, name);
+            String htmlBody = emailTemplates.render("welcome", Map.of("name", name));
 
             log.info("Sending welcome email to: {}", to);
-            emailService.send(to, "Welcome to Kurama Platform!", htmlBody);
+            emailService.send(to, "Welcome to Kurama Platform!", htmlBody).join();
 
             Map<String, String> response = new HashMap<>();
             response.put("status", "success");
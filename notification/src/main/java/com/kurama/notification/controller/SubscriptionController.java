@@ -0,0 +1,53 @@
+package com.kurama.notification.controller;
+
+import com.kurama.notification.dto.SubscriptionRequest;
+import com.kurama.notification.entity.Subscription;
+import com.kurama.notification.repository.SubscriptionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Manages who receives digests for which feed.
+ */
+@RestController
+@RequestMapping("/api/subscriptions")
+@RequiredArgsConstructor
+public class SubscriptionController {
+
+    private final SubscriptionRepository subscriptionRepository;
+
+    /**
+     * Subscribe an email address to a feed. Subscribing twice returns the existing subscription.
+     * POST /api/subscriptions
+     * {
+     *   "email": "reader@example.com",
+     *   "feedId": "1fe2dc63-cf2e-46d5-a61c-99144319ecc6"
+     * }
+     */
+    @PostMapping
+    public ResponseEntity<?> subscribe(@RequestBody SubscriptionRequest request) {
+        if (request.getEmail() == null || request.getEmail().isBlank() || request.getFeedId() == null) {
+            return ResponseEntity.badRequest().body("email and feedId are required");
+        }
+        String email = request.getEmail().trim();
+        Subscription subscription = subscriptionRepository.findByEmailAndFeedId(email, request.getFeedId())
+                .orElseGet(() -> subscriptionRepository.save(Subscription.of(email, request.getFeedId())));
+        return ResponseEntity.created(URI.create("/api/subscriptions/" + subscription.getId())).body(subscription);
+    }
+
+    @GetMapping
+    public List<Subscription> findByEmail(@RequestParam String email) {
+        return subscriptionRepository.findByEmail(email);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> unsubscribe(@PathVariable UUID id) {
+        subscriptionRepository.deleteById(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,11 @@
+package com.kurama.notification.dto;
+
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+public class SubscriptionRequest {
+    private String email;
+    private UUID feedId;
+}
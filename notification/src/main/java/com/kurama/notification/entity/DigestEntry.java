@@ -0,0 +1,45 @@
+package com.kurama.notification.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An article waiting in a recipient's digest window. Rows are deleted once the digest has been sent, so the table
+ * only ever holds the open windows.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "digest_entries",
+        uniqueConstraints = @UniqueConstraint(name = "uk_digest_entries_recipient_guid", columnNames = {"recipient", "articleGuid"}))
+public class DigestEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private UUID feedId;
+
+    @Column(nullable = false)
+    private String articleGuid;
+
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String link;
+
+    private Instant publishDate;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,62 @@
+package com.kurama.notification.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * One outbound email. Rows are written before the work that produced them is acknowledged and drained by
+ * {@link com.kurama.notification.service.mail.MailQueue}; the idempotency key keeps the same email from being
+ * queued twice.
+ */
+@Entity
+@Table(name = "mail_outbox",
+        uniqueConstraints = @UniqueConstraint(name = "uk_mail_outbox_idempotency_key", columnNames = "idempotencyKey"),
+        indexes = @Index(name = "idx_mail_outbox_due", columnList = "status, nextAttemptAt"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class MailOutbox {
+
+    public enum Status {
+        PENDING, SENT, DEAD
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String htmlBody;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Retry state: a claimed row is leased until nextAttemptAt, so a crashed sender's rows become due again
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    private int attempts;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    // When the SMTP server accepted the email, or when it was given up on
+    private Instant completedAt;
+}
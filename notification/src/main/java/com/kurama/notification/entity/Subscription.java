@@ -0,0 +1,40 @@
+package com.kurama.notification.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A recipient who wants digests of new articles from one feed.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "subscriptions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_subscriptions_email_feed", columnNames = {"email", "feedId"}),
+        indexes = @Index(name = "idx_subscriptions_feed_id", columnList = "feedId"))
+public class Subscription {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Column(nullable = false)
+    private UUID feedId;
+
+    private Instant createdAt;
+
+    public static Subscription of(String email, UUID feedId) {
+        Subscription subscription = new Subscription();
+        subscription.setEmail(email);
+        subscription.setFeedId(feedId);
+        subscription.setCreatedAt(Instant.now());
+        return subscription;
+    }
+}
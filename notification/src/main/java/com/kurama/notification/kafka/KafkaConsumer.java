@@ -1,66 +1,54 @@
 package com.kurama.notification.kafka;
 
-import com.kurama.notification.dto.ArticleMessage;
-import com.kurama.notification.service.EmailService;
+import com.kurama.notification.service.digest.DigestAggregator;
+import com.kurama.schema.ArticleMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class KafkaConsumer {
 
-    private final EmailService emailService;
+    private final DigestAggregator digestAggregator;
 
 
-    @KafkaListener(topics = "NEW_ARTICLES", groupId = "notification-service")
-    public void consumeArticle(
-            ConsumerRecord<String, ArticleMessage> record
+    @KafkaListener(topics = "NEW_ARTICLES", groupId = "notification-service",
+            containerFactory = "articleBatchListenerFactory")
+    public void consumeArticles(
+            List<ConsumerRecord<String, ArticleMessage>> records,
+            Acknowledgment acknowledgment
     ) {
-        try {
-            log.info("Received message from topic: {}, partition: {}, offset: {}, key: {}",
+        long start = System.nanoTime();
+        List<ArticleMessage> articles = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, ArticleMessage> record : records) {
+            log.debug("Received message from topic: {}, partition: {}, offset: {}, key: {}",
                     record.topic(), record.partition(), record.offset(), record.key());
 
             ArticleMessage article = record.value();
-
             if (article == null) {
-                log.warn("Received null article message at offset: {}", record.offset());
-                return;
+                // Either a tombstone or a value the deserializer could not decode; retrying will not help
+                log.warn("Skipping undecodable article message at partition: {}, offset: {}",
+                        record.partition(), record.offset());
+                continue;
             }
-
-            log.info("Processing article: '{}'", article.getTitle());
-            log.info("Article details:");
-            log.info("  - GUID: {}", article.getGuid());
-            log.info("  - Link: {}", article.getLink());
-            log.info("  - Author: {}", article.getAuthor());
-            log.info("  - Category: {}", article.getCategory());
-            log.info("  - FeedId: {}", article.getFeedId());
-            log.info("  - Publish Date: {}", article.getPublishDate());
-            log.info("  - Description: {}", article.getDescription());
-
-            // Send email notification
-            processArticle(article);
-
-            log.info("Successfully processed article: {}", article.getTitle());
-
-        } catch (Exception e) {
-            log.error("Error processing article message at offset {}: {}",
-                    record.offset(), e.getMessage(), e);
+            log.debug("Processing article for notification: guid={}, feedId={}, title={}",
+                    article.getGuid(), article.getFeedId(), article.getTitle());
+            articles.add(article);
         }
-    }
 
-    private void processArticle(ArticleMessage article) {
-        log.debug("Processing article for notification: {}", article.getTitle());
+        // Digest entries are stored idempotently, so if this throws the error handler can redeliver the whole batch
+        digestAggregator.add(articles);
 
-        try {
-            // Send email notification
-            log.info("Email notification sent for article: {}", article.getTitle());
-        } catch (Exception e) {
-            log.error("Failed to send email notification for article: {}", article.getTitle(), e);
-            // Don't throw exception - we don't want to stop consuming messages
-        }
+        acknowledgment.acknowledge();
+        log.info("Processed {} article messages ({} skipped) in {} ms",
+                records.size(), records.size() - articles.size(), (System.nanoTime() - start) / 1_000_000);
     }
 }
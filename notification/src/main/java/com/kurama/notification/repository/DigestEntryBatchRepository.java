@@ -0,0 +1,98 @@
+package com.kurama.notification.repository;
+
+import com.kurama.notification.entity.DigestEntry;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Writes digest entries in one JDBC batch. {@code ON CONFLICT DO NOTHING} on (recipient, article_guid) makes a
+ * redelivered Kafka batch harmless, and only the rows that were actually inserted come back with their ids.
+ */
+@Repository
+public class DigestEntryBatchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO digest_entries (recipient, feed_id, article_guid, title, link, publish_date, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT DO NOTHING""";
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DigestEntryBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the entries that are not stored yet, sets their ids and returns exactly those entries.
+     */
+    @Transactional
+    public List<DigestEntry> insertNew(List<DigestEntry> entries) {
+        if (entries.isEmpty()) {
+            return entries;
+        }
+        return jdbcTemplate.execute((ConnectionCallback<List<DigestEntry>>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[]{"id", "recipient", "article_guid"})) {
+                Calendar utc = Calendar.getInstance(UTC);
+                for (DigestEntry entry : entries) {
+                    bind(statement, entry, utc);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                return inserted(statement, entries);
+            }
+        });
+    }
+
+    private static void bind(PreparedStatement statement, DigestEntry entry, Calendar utc) throws SQLException {
+        statement.setString(1, entry.getRecipient());
+        statement.setObject(2, entry.getFeedId());
+        statement.setString(3, entry.getArticleGuid());
+        statement.setString(4, entry.getTitle());
+        statement.setString(5, entry.getLink());
+        if (entry.getPublishDate() != null) {
+            statement.setTimestamp(6, Timestamp.from(entry.getPublishDate()), utc);
+        } else {
+            statement.setNull(6, Types.TIMESTAMP);
+        }
+        statement.setTimestamp(7, Timestamp.from(entry.getCreatedAt()), utc);
+    }
+
+    // Generated keys only cover inserted rows, so they are matched back to entries by their unique key
+    private static List<DigestEntry> inserted(PreparedStatement statement, List<DigestEntry> entries) throws SQLException {
+        Map<String, DigestEntry> byKey = new HashMap<>();
+        for (DigestEntry entry : entries) {
+            byKey.putIfAbsent(key(entry.getRecipient(), entry.getArticleGuid()), entry);
+        }
+        List<DigestEntry> inserted = new ArrayList<>();
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            while (keys.next()) {
+                DigestEntry entry = byKey.get(key(keys.getString(2), keys.getString(3)));
+                if (entry != null) {
+                    entry.setId(keys.getLong(1));
+                    inserted.add(entry);
+                }
+            }
+        }
+        return inserted;
+    }
+
+    private static String key(String recipient, String guid) {
+        return recipient + '\n' + guid;
+    }
+}
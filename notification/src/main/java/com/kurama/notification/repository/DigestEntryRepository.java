@@ -0,0 +1,23 @@
+package com.kurama.notification.repository;
+
+import com.kurama.notification.entity.DigestEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface DigestEntryRepository extends JpaRepository<DigestEntry, Long> {
+
+    @Query("select e from DigestEntry e where e.id > :after order by e.id")
+    List<DigestEntry> findPendingAfter(@Param("after") long after, Pageable page);
+
+    @Transactional
+    @Modifying
+    @Query("delete from DigestEntry e where e.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
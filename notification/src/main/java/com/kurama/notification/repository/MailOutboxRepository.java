@@ -0,0 +1,49 @@
+package com.kurama.notification.repository;
+
+import com.kurama.notification.entity.MailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, Long> {
+
+    /**
+     * Queues an email unless one with the same idempotency key exists. Returns 1 if the row was inserted.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "insert into mail_outbox (idempotency_key, recipient, subject, html_body, status, created_at, "
+            + "next_attempt_at, attempts) values (:key, :recipient, :subject, :htmlBody, 'PENDING', :now, :now, 0) "
+            + "on conflict do nothing", nativeQuery = true)
+    int enqueue(@Param("key") String idempotencyKey, @Param("recipient") String recipient,
+                @Param("subject") String subject, @Param("htmlBody") String htmlBody, @Param("now") Instant now);
+
+    // Row locks are held until the claiming transaction ends; SKIP LOCKED lets several senders lease disjoint batches
+    @Query(value = "select * from mail_outbox where status = 'PENDING' and next_attempt_at <= :now "
+            + "order by next_attempt_at, id limit :limit for update skip locked", nativeQuery = true)
+    List<MailOutbox> claimBatch(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update MailOutbox m set m.status = :status, m.completedAt = :now, m.lastError = :error where m.id = :id")
+    int complete(@Param("id") Long id, @Param("status") MailOutbox.Status status, @Param("now") Instant now,
+                 @Param("error") String error);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update MailOutbox m set m.nextAttemptAt = :nextAttemptAt, m.lastError = :error where m.id = :id")
+    int reschedule(@Param("id") Long id, @Param("nextAttemptAt") Instant nextAttemptAt, @Param("error") String error);
+
+    long countByStatus(MailOutbox.Status status);
+
+    @Transactional
+    @Modifying
+    @Query("delete from MailOutbox m where m.status = com.kurama.notification.entity.MailOutbox.Status.SENT "
+            + "and m.completedAt < :before")
+    int deleteSentBefore(@Param("before") Instant before);
+}
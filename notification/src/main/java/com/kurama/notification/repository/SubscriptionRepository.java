@@ -0,0 +1,18 @@
+package com.kurama.notification.repository;
+
+import com.kurama.notification.entity.Subscription;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface SubscriptionRepository extends JpaRepository<Subscription, UUID> {
+
+    List<Subscription> findByFeedIdIn(Collection<UUID> feedIds);
+
+    List<Subscription> findByEmail(String email);
+
+    Optional<Subscription> findByEmailAndFeedId(String email, UUID feedId);
+}
@@ -1,22 +1,28 @@
 package com.kurama.notification.service;
 
+import com.kurama.notification.service.mail.MailDeliveryEngine;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Builds emails and hands them to {@link MailDeliveryEngine}. Every send method returns as soon as the message is
+ * queued; the returned future completes when the SMTP server has accepted it.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
     private final JavaMailSender mailSender;
+    private final MailDeliveryEngine deliveryEngine;
 
     /**
      * Send a simple text email
@@ -25,20 +31,8 @@ public class EmailService {
      * @param subject email subject
      * @param text    email body (plain text)
      */
-    public void sendSimpleEmail(String to, String subject, String text) {
-        try {
-            log.info("Sending simple email to: {}", to);
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(text);
-
-            mailSender.send(message);
-            log.info("Simple email sent successfully to: {}", to);
-        } catch (Exception e) {
-            log.error("Failed to send simple email to: {}", to, e);
-            throw new RuntimeException("Failed to send email", e);
-        }
+    public CompletableFuture<Void> sendSimpleEmail(String to, String subject, String text) {
+        return sendSimpleEmail(new String[]{to}, subject, text);
     }
 
     /**
@@ -48,18 +42,18 @@ public class EmailService {
      * @param subject email subject
      * @param text    email body (plain text)
      */
-    public void sendSimpleEmail(String[] to, String subject, String text) {
+    public CompletableFuture<Void> sendSimpleEmail(String[] to, String subject, String text) {
         try {
-            log.info("Sending simple email to {} recipients", to.length);
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(text);
+            log.debug("Queueing simple email to {} recipients", to.length);
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+            helper.setTo(to);
+            helper.setSubject(subject);
+            helper.setText(text);
 
-            mailSender.send(message);
-            log.info("Simple email sent successfully to {} recipients", to.length);
-        } catch (Exception e) {
-            log.error("Failed to send simple email to multiple recipients", e);
+            return deliver(message);
+        } catch (MessagingException e) {
+            log.error("Failed to build simple email", e);
             throw new RuntimeException("Failed to send email", e);
         }
     }
@@ -71,18 +65,17 @@ public class EmailService {
      * @param subject  email subject
      * @param htmlBody email body (HTML content)
      */
-    public void sendHtmlEmail(String to, String subject, String htmlBody) {
+    public CompletableFuture<Void> sendHtmlEmail(String to, String subject, String htmlBody) {
         try {
-            log.info("Sending HTML email to: {}", to);
+            log.debug("Queueing HTML email to: {}", to);
             MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
 
             helper.setTo(to);
             helper.setSubject(subject);
             helper.setText(htmlBody, true); // true indicates HTML
 
-            mailSender.send(message);
-            log.info("HTML email sent successfully to: {}", to);
+            return deliver(message);
         } catch (MessagingException e) {
             log.error("Failed to send HTML email to: {}", to, e);
             throw new RuntimeException("Failed to send HTML email", e);
@@ -96,18 +89,17 @@ public class EmailService {
      * @param subject  email subject
      * @param htmlBody email body (HTML content)
      */
-    public void sendHtmlEmail(String[] to, String subject, String htmlBody) {
+    public CompletableFuture<Void> sendHtmlEmail(String[] to, String subject, String htmlBody) {
         try {
-            log.info("Sending HTML email to {} recipients", to.length);
+            log.debug("Queueing HTML email to {} recipients", to.length);
             MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
 
             helper.setTo(to);
             helper.setSubject(subject);
             helper.setText(htmlBody, true); // true indicates HTML
 
-            mailSender.send(message);
-            log.info("HTML email sent successfully to {} recipients", to.length);
+            return deliver(message);
         } catch (MessagingException e) {
             log.error("Failed to send HTML email to multiple recipients", e);
             throw new RuntimeException("Failed to send HTML email", e);
@@ -122,9 +114,9 @@ public class EmailService {
      * @param htmlBody    email body (HTML content)
      * @param attachments array of files to attach
      */
-    public void sendEmailWithAttachments(String to, String subject, String htmlBody, File[] attachments) {
+    public CompletableFuture<Void> sendEmailWithAttachments(String to, String subject, String htmlBody, File[] attachments) {
         try {
-            log.info("Sending email with {} attachments to: {}", attachments.length, to);
+            log.debug("Queueing email with {} attachments to: {}", attachments.length, to);
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
 
@@ -138,8 +130,7 @@ public class EmailService {
                 log.debug("Attached file: {}", attachment.getName());
             }
 
-            mailSender.send(message);
-            log.info("Email with attachments sent successfully to: {}", to);
+            return deliver(message);
         } catch (MessagingException e) {
             log.error("Failed to send email with attachments to: {}", to, e);
             throw new RuntimeException("Failed to send email with attachments", e);
@@ -155,11 +146,11 @@ public class EmailService {
      * @param subject  email subject
      * @param htmlBody email body (HTML content)
      */
-    public void sendEmailWithCcBcc(String to, String[] cc, String[] bcc, String subject, String htmlBody) {
+    public CompletableFuture<Void> sendEmailWithCcBcc(String to, String[] cc, String[] bcc, String subject, String htmlBody) {
         try {
-            log.info("Sending email to: {} with CC and BCC", to);
+            log.debug("Queueing email to: {} with CC and BCC", to);
             MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
 
             helper.setTo(to);
             if (cc != null && cc.length > 0) {
@@ -173,8 +164,7 @@ public class EmailService {
             helper.setSubject(subject);
             helper.setText(htmlBody, true);
 
-            mailSender.send(message);
-            log.info("Email with CC/BCC sent successfully to: {}", to);
+            return deliver(message);
         } catch (MessagingException e) {
             log.error("Failed to send email with CC/BCC to: {}", to, e);
             throw new RuntimeException("Failed to send email", e);
@@ -192,12 +182,14 @@ public class EmailService {
      * @param attachments files to attach (can be null)
      * @param from        custom from address (can be null to use default)
      */
-    public void send(String[] to, String[] cc, String[] bcc, String subject, String htmlBody,
+    public CompletableFuture<Void> send(String[] to, String[] cc, String[] bcc, String subject, String htmlBody,
                      File[] attachments, String from) {
         try {
-            log.info("Sending comprehensive email to {} recipients", to.length);
+            log.debug("Queueing comprehensive email to {} recipients", to.length);
             MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            // A body-only message is a single text/html part; the multipart wrapper is only built for attachments
+            boolean multipart = attachments != null && attachments.length > 0;
+            MimeMessageHelper helper = new MimeMessageHelper(message, multipart, "UTF-8");
 
             // Set recipients
             helper.setTo(to);
@@ -236,8 +228,7 @@ public class EmailService {
                 }
             }
 
-            mailSender.send(message);
-            log.info("Comprehensive email sent successfully to {} recipients", to.length);
+            return deliver(message);
         } catch (MessagingException e) {
             log.error("Failed to send comprehensive email", e);
             throw new RuntimeException("Failed to send email", e);
@@ -251,8 +242,8 @@ public class EmailService {
      * @param subject  email subject
      * @param htmlBody email body (HTML content)
      */
-    public void send(String[] to, String subject, String htmlBody) {
-        send(to, null, null, subject, htmlBody, null, null);
+    public CompletableFuture<Void> send(String[] to, String subject, String htmlBody) {
+        return send(to, null, null, subject, htmlBody, null, null);
     }
 
     /**
@@ -262,8 +253,12 @@ public class EmailService {
      * @param subject  email subject
      * @param htmlBody email body (HTML content)
      */
-    public void send(String to, String subject, String htmlBody) {
-        send(new String[]{to}, null, null, subject, htmlBody, null, null);
+    public CompletableFuture<Void> send(String to, String subject, String htmlBody) {
+        return send(new String[]{to}, null, null, subject, htmlBody, null, null);
     }
 
+    // Delivery happens on the engine's pooled SMTP connections; failures surface through the returned future
+    private CompletableFuture<Void> deliver(MimeMessage message) {
+        return deliveryEngine.submit(message);
+    }
 }
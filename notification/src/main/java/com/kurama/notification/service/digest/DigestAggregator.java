@@ -0,0 +1,286 @@
+package com.kurama.notification.service.digest;
+
+import com.kurama.notification.entity.DigestEntry;
+import com.kurama.notification.entity.Subscription;
+import com.kurama.notification.repository.DigestEntryBatchRepository;
+import com.kurama.notification.repository.DigestEntryRepository;
+import com.kurama.notification.repository.SubscriptionRepository;
+import com.kurama.notification.service.mail.MailQueue;
+import com.kurama.schema.ArticleMessage;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces new articles into one digest email per recipient and feed.
+ * <p>
+ * A window opens with the first article for a (recipient, feed) pair and is sent when it is {@code window} old or
+ * holds {@code max-articles} entries, whichever comes first. Every entry is written to {@code digest_entries} before
+ * the Kafka batch is acknowledged and deleted in the same transaction that queues its digest in the
+ * {@link MailQueue}, so open windows survive a restart and a closed window is never lost or queued twice.
+ * The in-memory copy is bounded by {@code max-buffered}; beyond that the oldest windows are sent early. Entries that
+ * do not fit, at startup or because their digest could not be queued, stay only in {@code digest_entries} and are
+ * paged back in once there is room, failed ones no sooner than a full window later.
+ */
+@Service
+@Slf4j
+public class DigestAggregator {
+
+    private static final int PAGE_SIZE = 1000;
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final DigestEntryRepository digestEntryRepository;
+    private final DigestEntryBatchRepository digestEntryBatchRepository;
+    private final DigestRenderer renderer;
+    private final MailQueue mailQueue;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration window;
+    private final int maxArticles;
+    private final int maxBuffered;
+
+    // Insertion order is window age, so the first entry is always the oldest window
+    private final Map<DigestKey, Window> windows = new LinkedHashMap<>();
+    private final Set<Long> bufferedIds = new HashSet<>();
+    // Entries of windows being queued; their rows are still there until the queueing transaction commits
+    private final Set<Long> sendingIds = new HashSet<>();
+    // Set while digest_entries holds entries that are not buffered
+    private boolean spilled;
+    private Instant reloadAfter = Instant.MIN;
+
+    public DigestAggregator(
+            SubscriptionRepository subscriptionRepository,
+            DigestEntryRepository digestEntryRepository,
+            DigestEntryBatchRepository digestEntryBatchRepository,
+            DigestRenderer renderer,
+            MailQueue mailQueue,
+            TransactionTemplate transactionTemplate,
+            @Value("${notification.digest.window:10m}") Duration window,
+            @Value("${notification.digest.max-articles:50}") int maxArticles,
+            @Value("${notification.digest.max-buffered:10000}") int maxBuffered
+    ) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.digestEntryRepository = digestEntryRepository;
+        this.digestEntryBatchRepository = digestEntryBatchRepository;
+        this.renderer = renderer;
+        this.mailQueue = mailQueue;
+        this.transactionTemplate = transactionTemplate;
+        this.window = window;
+        this.maxArticles = maxArticles;
+        this.maxBuffered = maxBuffered;
+    }
+
+    @PostConstruct
+    void restore() {
+        int restored = reload();
+        if (restored > 0) {
+            log.info("Restored {} pending digest entries in {} windows", restored, windows.size());
+        }
+    }
+
+    /**
+     * Adds a batch of new articles to the windows of every subscriber of their feeds. Entries are persisted when
+     * this returns; digests that became full are queued before returning.
+     */
+    public void add(List<ArticleMessage> articles) {
+        Set<UUID> feedIds = articles.stream()
+                .map(ArticleMessage::getFeedId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (feedIds.isEmpty()) {
+            return;
+        }
+        Map<UUID, List<Subscription>> subscribersByFeed = subscriptionRepository.findByFeedIdIn(feedIds).stream()
+                .collect(Collectors.groupingBy(Subscription::getFeedId));
+        if (subscribersByFeed.isEmpty()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        List<DigestEntry> entries = new ArrayList<>();
+        for (ArticleMessage article : articles) {
+            for (Subscription subscription : subscribersByFeed.getOrDefault(article.getFeedId(), List.of())) {
+                entries.add(entry(subscription.getEmail(), article, now));
+            }
+        }
+        List<DigestEntry> inserted = digestEntryBatchRepository.insertNew(entries);
+
+        List<Window> ready = new ArrayList<>();
+        synchronized (this) {
+            for (DigestEntry entry : inserted) {
+                Window window = buffer(entry);
+                if (window != null && window.entries.size() >= maxArticles && windows.remove(window.key) != null) {
+                    unbuffer(window);
+                    ready.add(window);
+                }
+            }
+            ready.addAll(evictOverCapacity());
+        }
+        send(ready);
+    }
+
+    @Scheduled(initialDelayString = "${notification.digest.flush-interval-ms:5000}",
+            fixedDelayString = "${notification.digest.flush-interval-ms:5000}")
+    public void flushDue() {
+        Instant now = Instant.now();
+        Instant cutoff = now.minus(window);
+        List<Window> due = new ArrayList<>();
+        synchronized (this) {
+            if (spilled && bufferedIds.size() < maxBuffered && !now.isBefore(reloadAfter)) {
+                reload();
+            }
+            Iterator<Window> oldestFirst = windows.values().iterator();
+            while (oldestFirst.hasNext()) {
+                Window window = oldestFirst.next();
+                if (window.openedAt.isAfter(cutoff)) {
+                    break;
+                }
+                oldestFirst.remove();
+                unbuffer(window);
+                due.add(window);
+            }
+        }
+        send(due);
+    }
+
+    synchronized int bufferedEntries() {
+        return bufferedIds.size();
+    }
+
+    // Pages through digest_entries and buffers the entries that are not buffered yet, up to max-buffered
+    private synchronized int reload() {
+        int loaded = 0;
+        spilled = false;
+        long after = 0;
+        List<DigestEntry> page;
+        do {
+            page = digestEntryRepository.findPendingAfter(after, PageRequest.ofSize(PAGE_SIZE));
+            for (DigestEntry entry : page) {
+                if (bufferedIds.size() >= maxBuffered) {
+                    spilled = true;
+                    break;
+                }
+                if (buffer(entry) != null) {
+                    loaded++;
+                }
+            }
+            after = page.isEmpty() ? after : page.getLast().getId();
+        } while (!spilled && page.size() == PAGE_SIZE);
+
+        // Reloaded windows may be older than the ones already open, so the map is put back in age order
+        List<Window> oldestFirst = new ArrayList<>(windows.values());
+        oldestFirst.sort(Comparator.comparing(window -> window.openedAt));
+        windows.clear();
+        oldestFirst.forEach(window -> windows.put(window.key, window));
+        return loaded;
+    }
+
+    // Returns the entry's window, or null if the entry is already buffered or being queued
+    private Window buffer(DigestEntry entry) {
+        if (sendingIds.contains(entry.getId()) || !bufferedIds.add(entry.getId())) {
+            return null;
+        }
+        DigestKey key = new DigestKey(entry.getRecipient(), entry.getFeedId());
+        Window window = windows.computeIfAbsent(key, k -> new Window(k, entry.getCreatedAt()));
+        window.entries.add(entry);
+        return window;
+    }
+
+    private void unbuffer(Window window) {
+        for (DigestEntry entry : window.entries) {
+            bufferedIds.remove(entry.getId());
+            sendingIds.add(entry.getId());
+        }
+    }
+
+    private synchronized void sent(Window window) {
+        window.entries.forEach(entry -> sendingIds.remove(entry.getId()));
+    }
+
+    private List<Window> evictOverCapacity() {
+        List<Window> evicted = new ArrayList<>();
+        Iterator<Window> oldestFirst = windows.values().iterator();
+        while (bufferedIds.size() > maxBuffered && oldestFirst.hasNext()) {
+            Window window = oldestFirst.next();
+            oldestFirst.remove();
+            unbuffer(window);
+            evicted.add(window);
+        }
+        if (!evicted.isEmpty()) {
+            log.warn("Digest buffer over {} entries; sending {} windows early", maxBuffered, evicted.size());
+        }
+        return evicted;
+    }
+
+    // Only queues the digest, so consuming never waits for SMTP. A window that cannot be queued keeps its rows, since
+    // the transaction rolled back, and is paged back in after another full window
+    private void send(Collection<Window> ready) {
+        for (Window window : ready) {
+            try {
+                boolean queued = Boolean.TRUE.equals(transactionTemplate.execute(status -> queue(window)));
+                log.info("{} digest with {} articles for {}", queued ? "Queued" : "Already queued",
+                        window.entries.size(), window.key.recipient());
+            } catch (Exception e) {
+                log.error("Failed to queue digest for {}; retrying in {}", window.key.recipient(), this.window, e);
+                spill();
+            } finally {
+                sent(window);
+            }
+        }
+    }
+
+    private boolean queue(Window window) {
+        DigestRenderer.RenderedDigest digest = renderer.render(window.key, window.entries);
+        String key = MailQueue.idempotencyKey(window.key.recipient(),
+                window.entries.stream().map(DigestEntry::getArticleGuid).toList());
+        boolean queued = mailQueue.enqueue(key, window.key.recipient(), digest.subject(), digest.htmlBody());
+        digestEntryRepository.deleteByIds(window.entries.stream().map(DigestEntry::getId).toList());
+        return queued;
+    }
+
+    private synchronized void spill() {
+        spilled = true;
+        reloadAfter = Instant.now().plus(window);
+    }
+
+    private static DigestEntry entry(String recipient, ArticleMessage article, Instant now) {
+        DigestEntry entry = new DigestEntry();
+        entry.setRecipient(recipient);
+        entry.setFeedId(article.getFeedId());
+        entry.setArticleGuid(article.getGuid());
+        entry.setTitle(article.getTitle());
+        entry.setLink(article.getLink());
+        entry.setPublishDate(article.getPublishDate() != null ? Instant.ofEpochMilli(article.getPublishDate()) : null);
+        entry.setCreatedAt(now);
+        return entry;
+    }
+
+    private static final class Window {
+        private final DigestKey key;
+        private final Instant openedAt;
+        private final List<DigestEntry> entries = new ArrayList<>();
+
+        private Window(DigestKey key, Instant openedAt) {
+            this.key = key;
+            this.openedAt = openedAt;
+        }
+    }
+}
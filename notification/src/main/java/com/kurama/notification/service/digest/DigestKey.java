@@ -0,0 +1,9 @@
+package com.kurama.notification.service.digest;
+
+import java.util.UUID;
+
+/**
+ * One digest stream: a recipient's articles from one feed.
+ */
+public record DigestKey(String recipient, UUID feedId) {
+}
@@ -0,0 +1,42 @@
+package com.kurama.notification.service.digest;
+
+import com.kurama.notification.entity.DigestEntry;
+import com.kurama.notification.service.template.ArticleFragmentCache;
+import com.kurama.notification.service.template.EmailTemplates;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns a closed digest window into one email: cached per-article fragments inside the compiled digest template.
+ */
+@Component
+@RequiredArgsConstructor
+public class DigestRenderer {
+
+    private final EmailTemplates templates;
+    private final ArticleFragmentCache fragments;
+
+    public RenderedDigest render(DigestKey key, List<DigestEntry> entries) {
+        String subject = entries.size() == 1
+                ? "New article: " + title(entries.get(0))
+                : entries.size() + " new articles from your feed";
+
+        StringBuilder items = new StringBuilder(entries.size() * 256);
+        for (DigestEntry entry : entries) {
+            items.append(fragments.render(entry));
+        }
+        String html = templates.render("digest", Map.of("subject", subject, "items", items));
+        return new RenderedDigest(subject, html);
+    }
+
+    // Untitled articles are shown by GUID, as in their fragment
+    private static String title(DigestEntry entry) {
+        return entry.getTitle() != null ? entry.getTitle() : entry.getArticleGuid();
+    }
+
+    public record RenderedDigest(String subject, String htmlBody) {
+    }
+}
@@ -0,0 +1,233 @@
+package com.kurama.notification.service.mail;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous SMTP delivery.
+ * <p>
+ * {@code pool-size} workers each keep one SMTP connection open and send whatever has queued up, up to
+ * {@code batch-size} messages, over it before looking again, so a burst costs one handshake per worker instead of
+ * one per message. Connections idle for {@code idle-timeout} are closed. The queue is bounded: when it is full,
+ * {@link #submit} blocks the caller for up to {@code enqueue-timeout} and then rejects. Sends to each SMTP server
+ * are throttled by a token bucket. Each message gets a single attempt: {@link MailQueue} retries failed emails
+ * durably, and retrying here as well would multiply the attempts and could outlast the queue's lease, so the same
+ * email would be sent again from the outbox while still being retried here.
+ */
+@Component
+@Slf4j
+public class MailDeliveryEngine {
+
+    private static final long POLL_INTERVAL_MILLIS = 250;
+
+    private final JavaMailSenderImpl mailSender;
+    private final int poolSize;
+    private final int batchSize;
+    private final Duration enqueueTimeout;
+    private final Duration idleTimeout;
+    private final double ratePerSecond;
+    private final int burst;
+
+    private final BlockingQueue<Delivery> queue;
+    private final Map<String, TokenBucket> rateLimits = new ConcurrentHashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public MailDeliveryEngine(
+            JavaMailSenderImpl mailSender,
+            @Value("${notification.mail.pool-size:4}") int poolSize,
+            @Value("${notification.mail.queue-capacity:1000}") int queueCapacity,
+            @Value("${notification.mail.batch-size:20}") int batchSize,
+            @Value("${notification.mail.enqueue-timeout:5s}") Duration enqueueTimeout,
+            @Value("${notification.mail.idle-timeout:30s}") Duration idleTimeout,
+            @Value("${notification.mail.rate-per-second:10}") double ratePerSecond,
+            @Value("${notification.mail.burst:20}") int burst
+    ) {
+        this.mailSender = mailSender;
+        this.poolSize = poolSize;
+        this.batchSize = batchSize;
+        this.enqueueTimeout = enqueueTimeout;
+        this.idleTimeout = idleTimeout;
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < poolSize; i++) {
+            workers.add(Thread.ofPlatform().name("mail-sender-" + i).daemon().start(this::work));
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Shutting down with {} undelivered emails", queue.size());
+        }
+    }
+
+    /**
+     * Queues a message for delivery. The future completes once the SMTP server accepted the message, or
+     * exceptionally once it was rejected or the attempt failed.
+     *
+     * @throws RejectedExecutionException if the queue stayed full for {@code enqueue-timeout}
+     */
+    public CompletableFuture<Void> submit(MimeMessage message) {
+        Delivery delivery = new Delivery(message, new CompletableFuture<>());
+        try {
+            if (!running || !queue.offer(delivery, enqueueTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new RejectedExecutionException("Mail queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for space in the mail queue", e);
+        }
+        return delivery.result;
+    }
+
+    int queued() {
+        return queue.size();
+    }
+
+    private void work() {
+        Transport transport = null;
+        long lastUsed = System.nanoTime();
+        List<Delivery> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                // Short polls so that stop() is noticed quickly; the connection is closed only after idle-timeout
+                Delivery first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (transport != null && System.nanoTime() - lastUsed > idleTimeout.toNanos()) {
+                        transport = close(transport);
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                transport = sendBatch(transport, batch);
+                batch.clear();
+                lastUsed = System.nanoTime();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            batch.forEach(delivery -> delivery.result.completeExceptionally(new MailSendException("Mail engine stopped")));
+            close(transport);
+        }
+    }
+
+    // Returns the transport to keep using; null after a connection-level failure
+    private Transport sendBatch(Transport transport, List<Delivery> batch) throws InterruptedException {
+        TokenBucket rateLimit = rateLimits.computeIfAbsent(mailSender.getHost(), host -> new TokenBucket(ratePerSecond, burst));
+        for (int i = 0; i < batch.size(); i++) {
+            Delivery delivery = batch.get(i);
+            rateLimit.acquire();
+            try {
+                if (transport == null || !transport.isConnected()) {
+                    transport = connect();
+                }
+                MimeMessage message = delivery.message;
+                if (message.getSentDate() == null) {
+                    message.setSentDate(new Date());
+                }
+                message.saveChanges();
+                transport.sendMessage(message, message.getAllRecipients());
+                delivery.result.complete(null);
+            } catch (SendFailedException e) {
+                if (isPermanent(e)) {
+                    delivery.result.completeExceptionally(new MailSendException("Recipients rejected", e));
+                } else {
+                    // A 4xx reply such as 421 may come with the server closing the connection
+                    transport = close(transport);
+                    delivery.result.completeExceptionally(new MailSendException("Recipients temporarily refused", e));
+                }
+            } catch (MessagingException | RuntimeException e) {
+                transport = close(transport);
+                log.warn("Email delivery failed: {}", e.toString());
+                delivery.result.completeExceptionally(new MailSendException("Delivery failed", e));
+            }
+        }
+        return transport;
+    }
+
+    private Transport connect() throws MessagingException {
+        Session session = mailSender.getSession();
+        Transport transport = session.getTransport(mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp");
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        log.debug("Opened SMTP connection to {}:{}", mailSender.getHost(), mailSender.getPort());
+        return transport;
+    }
+
+    /**
+     * Whether resending the same message cannot succeed: the server refused it or its recipients with a 5xx reply, or
+     * the client could not send it at all, e.g. for lack of valid recipients. A 4xx reply anywhere in the failure
+     * (greylisting, a busy mailbox, a server closing the connection) is temporary.
+     */
+    static boolean isPermanent(Throwable failure) {
+        boolean refused = false;
+        // MessagingException.getCause() is the next exception, which holds the per-recipient failures
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            int code = returnCode(cause);
+            if (code >= 400 && code < 500) {
+                return false;
+            }
+            refused |= cause instanceof SendFailedException;
+        }
+        return refused;
+    }
+
+    private static int returnCode(Throwable failure) {
+        if (failure instanceof SMTPSendFailedException send) {
+            return send.getReturnCode();
+        }
+        if (failure instanceof SMTPAddressFailedException address) {
+            return address.getReturnCode();
+        }
+        return -1;
+    }
+
+    private static Transport close(Transport transport) {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Error closing SMTP connection", e);
+            }
+        }
+        return null;
+    }
+
+    private record Delivery(MimeMessage message, CompletableFuture<Void> result) {
+    }
+}
@@ -0,0 +1,181 @@
+package com.kurama.notification.service.mail;
+
+import com.kurama.notification.entity.MailOutbox;
+import com.kurama.notification.repository.MailOutboxRepository;
+import com.kurama.notification.service.EmailService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Durable outbound mail queue backed by {@code mail_outbox}.
+ * <p>
+ * {@link #enqueue} only writes a row, so callers never wait for SMTP. Each dispatch round leases a batch of due rows
+ * with {@code FOR UPDATE SKIP LOCKED} by pushing their {@code next_attempt_at} out by {@code lease}, commits, and
+ * hands the emails to {@link MailDeliveryEngine}. The lease is the only lock held while the email is in flight: rows
+ * of an instance that dies mid-send become due again once it expires. Failed emails are retried with jittered
+ * exponential backoff; emails refused with a 5xx reply and emails out of attempts are dead-lettered, while 4xx
+ * replies such as greylisting are retried like any other failure. A crash between the SMTP server accepting an email
+ * and the row being marked sent re-sends it, so delivery is at-least-once.
+ */
+@Service
+@Slf4j
+public class MailQueue {
+
+    private final MailOutboxRepository outboxRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration minBackoff;
+    private final Duration maxBackoff;
+    private final Duration retention;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public MailQueue(
+            MailOutboxRepository outboxRepository,
+            EmailService emailService,
+            TransactionTemplate transactionTemplate,
+            @Value("${notification.mail.outbox.batch-size:100}") int batchSize,
+            @Value("${notification.mail.outbox.max-in-flight:500}") int maxInFlight,
+            @Value("${notification.mail.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${notification.mail.outbox.lease:5m}") Duration lease,
+            @Value("${notification.mail.outbox.min-backoff:30s}") Duration minBackoff,
+            @Value("${notification.mail.outbox.max-backoff:1h}") Duration maxBackoff,
+            @Value("${notification.mail.outbox.retention:7d}") Duration retention
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.emailService = emailService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.minBackoff = minBackoff;
+        this.maxBackoff = maxBackoff;
+        this.retention = retention;
+    }
+
+    /**
+     * Queues an HTML email. Joins the caller's transaction, so the email is queued exactly when the caller's own
+     * writes commit. Returns false if an email with the same idempotency key was queued before.
+     */
+    public boolean enqueue(String idempotencyKey, String recipient, String subject, String htmlBody) {
+        return outboxRepository.enqueue(idempotencyKey, recipient, subject, htmlBody, Instant.now()) > 0;
+    }
+
+    @Scheduled(initialDelayString = "${notification.mail.outbox.poll-millis:1000}",
+            fixedDelayString = "${notification.mail.outbox.poll-millis:1000}")
+    public void dispatch() {
+        // Keep claiming while batches come back full and the delivery engine has room
+        while (true) {
+            int room = Math.min(batchSize, maxInFlight - inFlight.get());
+            if (room <= 0) {
+                return;
+            }
+            List<MailOutbox> leased = transactionTemplate.execute(status -> lease(room));
+            if (leased == null || leased.isEmpty()) {
+                return;
+            }
+            leased.forEach(this::send);
+            if (leased.size() < room) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.mail.outbox.purge-millis:3600000}")
+    public void purgeSent() {
+        int deleted = outboxRepository.deleteSentBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Purged {} sent mail outbox rows", deleted);
+        }
+    }
+
+    /**
+     * Identifies one email by its recipient and the articles it announces, independent of their order.
+     */
+    public static String idempotencyKey(String recipient, Collection<String> articleGuids) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(recipient.toLowerCase().getBytes(StandardCharsets.UTF_8));
+            articleGuids.stream().sorted().forEach(guid -> {
+                sha256.update((byte) '\n');
+                sha256.update(guid.getBytes(StandardCharsets.UTF_8));
+            });
+            return HexFormat.of().formatHex(sha256.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // Runs in the claiming transaction; the attempt is counted up front so a crash mid-send still uses it up
+    private List<MailOutbox> lease(int limit) {
+        Instant now = Instant.now();
+        List<MailOutbox> batch = outboxRepository.claimBatch(now, limit);
+        for (MailOutbox row : batch) {
+            row.setAttempts(row.getAttempts() + 1);
+            row.setNextAttemptAt(now.plus(lease));
+        }
+        return batch;
+    }
+
+    private void send(MailOutbox row) {
+        inFlight.incrementAndGet();
+        CompletableFuture<Void> delivery;
+        try {
+            delivery = emailService.sendHtmlEmail(row.getRecipient(), row.getSubject(), row.getHtmlBody());
+        } catch (RuntimeException e) {
+            delivery = CompletableFuture.failedFuture(e);
+        }
+        delivery.whenComplete((ignored, failure) -> {
+            inFlight.decrementAndGet();
+            try {
+                settle(row, failure);
+            } catch (RuntimeException e) {
+                // The lease runs out and the row is retried
+                log.error("Failed to record the outcome of mail {}", row.getId(), e);
+            }
+        });
+    }
+
+    private void settle(MailOutbox row, Throwable failure) {
+        Instant now = Instant.now();
+        if (failure == null) {
+            outboxRepository.complete(row.getId(), MailOutbox.Status.SENT, now, null);
+            log.debug("Sent mail {} to {}", row.getId(), row.getRecipient());
+        } else if (MailDeliveryEngine.isPermanent(failure) || row.getAttempts() >= maxAttempts) {
+            outboxRepository.complete(row.getId(), MailOutbox.Status.DEAD, now, String.valueOf(failure));
+            log.error("Giving up on mail {} to {} after {} attempts", row.getId(), row.getRecipient(),
+                    row.getAttempts(), failure);
+        } else {
+            outboxRepository.reschedule(row.getId(), now.plus(backoff(row.getAttempts())), String.valueOf(failure));
+            log.warn("Mail {} to {} failed on attempt {}; retrying later: {}", row.getId(), row.getRecipient(),
+                    row.getAttempts(), failure.toString());
+        }
+    }
+
+    // Equal jitter: a random delay between half and all of the exponential ceiling, so emails that failed together in
+    // one outage do not all come due again at the same instant
+    private Duration backoff(int attempts) {
+        long ceiling = Math.min(maxBackoff.toMillis(), minBackoff.toMillis() << Math.min(attempts - 1, 20));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+    }
+}
@@ -0,0 +1,57 @@
+package com.kurama.notification.service.template;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.kurama.notification.entity.DigestEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rendered {@code article-item} fragments keyed by article GUID. An article that lands in the digests of N
+ * subscribers is rendered once; the fragment only depends on the article, never on the recipient.
+ */
+@Component
+public class ArticleFragmentCache {
+
+    private static final DateTimeFormatter PUBLISHED = DateTimeFormatter.ofPattern("d MMM yyyy, HH:mm 'UTC'")
+            .withZone(ZoneOffset.UTC);
+
+    private final EmailTemplates templates;
+    private final Cache<String, String> fragments;
+
+    public ArticleFragmentCache(
+            EmailTemplates templates,
+            @Value("${notification.templates.fragment-cache.max-size:10000}") long maxSize,
+            @Value("${notification.templates.fragment-cache.ttl:1h}") Duration ttl
+    ) {
+        this.templates = templates;
+        this.fragments = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public String render(DigestEntry entry) {
+        return fragments.get(entry.getArticleGuid(), guid -> templates.render("article-item", view(entry)));
+    }
+
+    public CacheStats stats() {
+        return fragments.stats();
+    }
+
+    private static Map<String, Object> view(DigestEntry entry) {
+        Map<String, Object> view = new HashMap<>();
+        view.put("title", entry.getTitle() != null ? entry.getTitle() : entry.getArticleGuid());
+        view.put("link", entry.getLink());
+        view.put("published", entry.getPublishDate() != null ? PUBLISHED.format(entry.getPublishDate()) : null);
+        return view;
+    }
+}
@@ -0,0 +1,55 @@
+package com.kurama.notification.service.template;
+
+import com.samskivert.mustache.Mustache;
+import com.samskivert.mustache.Template;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Email templates, parsed and compiled once at startup. A compiled template renders by walking its segments, so a
+ * render costs only the variable substitution. Values are HTML-escaped unless a template uses {@code {{{triple}}}}.
+ */
+@Component
+@Slf4j
+public class EmailTemplates {
+
+    private static final String SUFFIX = ".mustache";
+
+    private final Map<String, Template> templates;
+
+    public EmailTemplates(@Value("${notification.templates.location:classpath:templates/email/}") String location) {
+        Mustache.Compiler compiler = Mustache.compiler().defaultValue("");
+        Map<String, Template> compiled = new HashMap<>();
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(location + "*" + SUFFIX)) {
+                String name = resource.getFilename().substring(0, resource.getFilename().length() - SUFFIX.length());
+                try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+                    compiled.put(name, compiler.compile(reader));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load email templates from " + location, e);
+        }
+        this.templates = Map.copyOf(compiled);
+        log.info("Compiled {} email templates from {}", templates.size(), location);
+    }
+
+    public String render(String name, Object context) {
+        Template template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown email template: " + name);
+        }
+        return template.execute(context);
+    }
+}
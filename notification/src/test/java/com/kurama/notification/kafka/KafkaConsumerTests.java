@@ -0,0 +1,62 @@
+package com.kurama.notification.kafka;
+
+import com.kurama.schema.ArticleMessage;
+import com.kurama.schema.ArticleMessageSerializer;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}")
+@EmbeddedKafka(partitions = 1, topics = "NEW_ARTICLES")
+class KafkaConsumerTests {
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Test
+    void commitsOffsetsOnceTheBatchIsProcessed() throws Exception {
+        Map<String, Object> props = Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ArticleMessageSerializer.class);
+        try (KafkaProducer<String, ArticleMessage> producer = new KafkaProducer<>(props)) {
+            for (int i = 0; i < 10; i++) {
+                ArticleMessage message = ArticleMessage.builder()
+                        .guid("guid-" + i)
+                        .title("Article " + i)
+                        .feedId(UUID.randomUUID())
+                        .build();
+                producer.send(new ProducerRecord<>("NEW_ARTICLES", message.getGuid(), message));
+            }
+            // Values without an article (tombstones, undecodable bytes) are skipped rather than blocking the partition
+            producer.send(new ProducerRecord<>("NEW_ARTICLES", "bad", null)).get();
+        }
+
+        TopicPartition partition = new TopicPartition("NEW_ARTICLES", 0);
+        try (Admin admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()))) {
+            await().atMost(Duration.ofSeconds(30)).untilAsserted(() -> {
+                OffsetAndMetadata committed = admin.listConsumerGroupOffsets("notification-service")
+                        .partitionsToOffsetAndMetadata().get().get(partition);
+                assertThat(committed).isNotNull();
+                assertThat(committed.offset()).isEqualTo(11);
+            });
+        }
+    }
+}
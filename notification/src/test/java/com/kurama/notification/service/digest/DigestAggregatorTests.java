@@ -0,0 +1,176 @@
+package com.kurama.notification.service.digest;
+
+import com.kurama.notification.entity.MailOutbox;
+import com.kurama.notification.entity.Subscription;
+import com.kurama.notification.repository.DigestEntryBatchRepository;
+import com.kurama.notification.repository.DigestEntryRepository;
+import com.kurama.notification.repository.MailOutboxRepository;
+import com.kurama.notification.repository.SubscriptionRepository;
+import com.kurama.notification.service.EmailService;
+import com.kurama.notification.service.mail.MailQueue;
+import com.kurama.notification.service.template.ArticleFragmentCache;
+import com.kurama.notification.service.template.EmailTemplates;
+import com.kurama.schema.ArticleMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Keep the scheduled dispatcher from sending queued digests while a test inspects them
+@DataJpaTest(properties = "notification.mail.outbox.poll-millis=3600000")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({DigestEntryBatchRepository.class, DigestRenderer.class, EmailTemplates.class, ArticleFragmentCache.class,
+        MailQueue.class})
+class DigestAggregatorTests {
+
+    private static final UUID FEED_ID = UUID.randomUUID();
+
+    // Built per test: the in-memory windows must not leak between tests sharing one context
+    private DigestAggregator aggregator;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private DigestEntryRepository digestEntryRepository;
+
+    @Autowired
+    private DigestEntryBatchRepository digestEntryBatchRepository;
+
+    @Autowired
+    private DigestRenderer renderer;
+
+    @Autowired
+    private MailQueue mailQueue;
+
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Only needed by MailQueue; digests stay in the queue during these tests
+    @MockitoBean
+    private EmailService emailService;
+
+    @BeforeEach
+    void subscribe() {
+        subscriptionRepository.save(Subscription.of("reader@example.com", FEED_ID));
+        aggregator = aggregator(Duration.ofHours(1));
+    }
+
+    @Test
+    void sendsOneDigestPerFullWindow() {
+        aggregator.add(articles(0, 5));
+
+        assertThat(mailOutboxRepository.findAll())
+                .extracting(MailOutbox::getRecipient, MailOutbox::getSubject)
+                .containsExactly(tuple("reader@example.com", "3 new articles from your feed"));
+        assertThat(aggregator.bufferedEntries()).isEqualTo(2);
+        assertThat(digestEntryRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void redeliveredArticlesAreNotBufferedTwice() {
+        aggregator.add(articles(0, 2));
+        aggregator.add(articles(0, 2));
+
+        assertThat(mailOutboxRepository.count()).isZero();
+        assertThat(aggregator.bufferedEntries()).isEqualTo(2);
+    }
+
+    @Test
+    void ignoresArticlesWithoutSubscribers() {
+        aggregator.add(List.of(ArticleMessage.builder().guid("other").feedId(UUID.randomUUID()).build()));
+
+        assertThat(digestEntryRepository.count()).isZero();
+    }
+
+    @Test
+    void restoresOpenWindowsAfterRestart() {
+        aggregator.add(articles(0, 2));
+
+        DigestAggregator restarted = aggregator(Duration.ZERO);
+        restarted.restore();
+        restarted.flushDue();
+
+        assertThat(mailOutboxRepository.findAll())
+                .extracting(MailOutbox::getRecipient, MailOutbox::getSubject)
+                .containsExactly(tuple("reader@example.com", "2 new articles from your feed"));
+        assertThat(digestEntryRepository.count()).isZero();
+    }
+
+    @Test
+    void restorePagesInNoMoreThanMaxBufferedEntries() {
+        aggregator(Duration.ofHours(1), renderer, 10, 100).add(articles(0, 5));
+
+        DigestAggregator restarted = aggregator(Duration.ZERO, renderer, 10, 2);
+        restarted.restore();
+        assertThat(restarted.bufferedEntries()).isEqualTo(2);
+
+        restarted.flushDue();
+        restarted.flushDue();
+        restarted.flushDue();
+
+        assertThat(mailOutboxRepository.findAll()).extracting(MailOutbox::getSubject).containsExactly(
+                "2 new articles from your feed", "2 new articles from your feed", "New article: Article 4");
+        assertThat(digestEntryRepository.count()).isZero();
+    }
+
+    @Test
+    void windowThatCannotBeQueuedIsRetriedFromDisk() {
+        DigestRenderer failingOnce = mock(DigestRenderer.class);
+        when(failingOnce.render(any(), any()))
+                .thenThrow(new IllegalStateException("Template unavailable"))
+                .thenAnswer(invocation -> renderer.render(invocation.getArgument(0), invocation.getArgument(1)));
+        DigestAggregator aggregator = aggregator(Duration.ZERO, failingOnce, 3, 100);
+
+        aggregator.add(articles(0, 3));
+
+        assertThat(mailOutboxRepository.count()).isZero();
+        assertThat(aggregator.bufferedEntries()).isZero();
+        assertThat(digestEntryRepository.count()).isEqualTo(3);
+
+        aggregator.flushDue();
+
+        assertThat(mailOutboxRepository.findAll()).extracting(MailOutbox::getSubject)
+                .containsExactly("3 new articles from your feed");
+        assertThat(digestEntryRepository.count()).isZero();
+    }
+
+    private DigestAggregator aggregator(Duration window) {
+        return aggregator(window, renderer, 3, 100);
+    }
+
+    private DigestAggregator aggregator(Duration window, DigestRenderer renderer, int maxArticles, int maxBuffered) {
+        return new DigestAggregator(subscriptionRepository, digestEntryRepository, digestEntryBatchRepository,
+                renderer, mailQueue, transactionTemplate, window, maxArticles, maxBuffered);
+    }
+
+    private static List<ArticleMessage> articles(int from, int to) {
+        return IntStream.range(from, to)
+                .mapToObj(i -> ArticleMessage.builder()
+                        .guid("guid-" + i)
+                        .title("Article " + i)
+                        .link("http://example.com/" + i)
+                        .publishDate(1_759_744_800_000L)
+                        .feedId(FEED_ID)
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,111 @@
+package com.kurama.notification.service.mail;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MailDeliveryEngineTests {
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private MailDeliveryEngine engine;
+
+    @AfterEach
+    void stopEngine() throws InterruptedException {
+        if (engine != null) {
+            engine.stop();
+        }
+    }
+
+    @Test
+    void deliversEveryQueuedMessage() throws Exception {
+        JavaMailSenderImpl sender = sender(ServerSetupTest.SMTP.getPort());
+        engine = engine(sender, 1000);
+
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            results.add(engine.submit(message(sender, "reader" + i + "@example.com")));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(50);
+    }
+
+    @Test
+    void failsWithoutRetryingWhenTheServerIsDown() throws Exception {
+        ServerSetup late = ServerSetupTest.SMTP.port(ServerSetupTest.SMTP.getPort() + 100);
+        JavaMailSenderImpl sender = sender(late.getPort());
+        engine = engine(sender, 1000);
+
+        CompletableFuture<Void> result = engine.submit(message(sender, "reader@example.com"));
+
+        // MailQueue owns retries; the engine must not send the message again once the server is back
+        assertThatThrownBy(() -> result.get(30, TimeUnit.SECONDS)).hasCauseInstanceOf(MailSendException.class);
+        GreenMail server = new GreenMail(late);
+        server.start();
+        try {
+            TimeUnit.MILLISECONDS.sleep(500);
+            assertThat(server.getReceivedMessages()).isEmpty();
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void ratePerServerBoundsThroughput() throws Exception {
+        JavaMailSenderImpl sender = sender(ServerSetupTest.SMTP.getPort());
+        engine = engine(sender, 20);
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            results.add(engine.submit(message(sender, "reader" + i + "@example.com")));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+        // Burst of 10, then 20 more at 20/s
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(900));
+    }
+
+    private static MailDeliveryEngine engine(JavaMailSenderImpl sender, double ratePerSecond) {
+        MailDeliveryEngine engine = new MailDeliveryEngine(sender, 2, 100, 20, Duration.ofSeconds(5),
+                Duration.ofSeconds(5), ratePerSecond, 10);
+        engine.start();
+        return engine;
+    }
+
+    private static JavaMailSenderImpl sender(int port) {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(port);
+        return sender;
+    }
+
+    private static MimeMessage message(JavaMailSenderImpl sender, String to) throws Exception {
+        MimeMessage message = sender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+        helper.setFrom("digest@kurama.local");
+        helper.setTo(to);
+        helper.setSubject("Digest");
+        helper.setText("<p>Hello</p>", true);
+        return message;
+    }
+}
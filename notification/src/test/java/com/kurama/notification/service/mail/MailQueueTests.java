@@ -0,0 +1,125 @@
+package com.kurama.notification.service.mail;
+
+import com.kurama.notification.entity.MailOutbox;
+import com.kurama.notification.repository.MailOutboxRepository;
+import com.kurama.notification.service.EmailService;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.InternetAddress;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.MailSendException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "notification.mail.outbox.poll-millis=3600000",
+        "notification.mail.outbox.purge-millis=3600000",
+        "notification.mail.outbox.min-backoff=30s"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MailQueue.class)
+class MailQueueTests {
+
+    @Autowired
+    private MailQueue mailQueue;
+
+    @Autowired
+    private MailOutboxRepository outboxRepository;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @Test
+    void sameEmailIsQueuedOnce() {
+        String key = MailQueue.idempotencyKey("reader@example.com", List.of("b", "a"));
+
+        assertThat(mailQueue.enqueue(key, "reader@example.com", "Digest", "<p>1</p>")).isTrue();
+        assertThat(mailQueue.enqueue(MailQueue.idempotencyKey("Reader@example.com", List.of("a", "b")),
+                "reader@example.com", "Digest", "<p>2</p>")).isFalse();
+
+        assertThat(outboxRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void sentEmailsAreCompletedAndFailedEmailsBackOff() {
+        queue("ok@example.com", "broken@example.com");
+        when(emailService.sendHtmlEmail(eq("ok@example.com"), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(emailService.sendHtmlEmail(eq("broken@example.com"), anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new MailSendException("Connection refused")));
+
+        mailQueue.dispatch();
+        mailQueue.dispatch();
+
+        Map<String, MailOutbox> rows = rowsByRecipient();
+        assertThat(rows.get("ok@example.com").getStatus()).isEqualTo(MailOutbox.Status.SENT);
+        MailOutbox broken = rows.get("broken@example.com");
+        assertThat(broken.getStatus()).isEqualTo(MailOutbox.Status.PENDING);
+        assertThat(broken.getAttempts()).isEqualTo(1);
+        assertThat(broken.getLastError()).contains("Connection refused");
+        // Jittered between half and all of min-backoff
+        assertThat(broken.getNextAttemptAt()).isBetween(Instant.now().plus(Duration.ofSeconds(14)),
+                Instant.now().plus(Duration.ofSeconds(31)));
+        // The second round found nothing due
+        verify(emailService, times(1)).sendHtmlEmail(eq("broken@example.com"), anyString(), anyString());
+    }
+
+    @Test
+    void rejectedRecipientsAreDeadLettered() {
+        queue("unknown@example.com");
+        when(emailService.sendHtmlEmail(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(
+                        new MailSendException("Recipients rejected", new SendFailedException("550 No such user"))));
+
+        mailQueue.dispatch();
+
+        MailOutbox row = rowsByRecipient().get("unknown@example.com");
+        assertThat(row.getStatus()).isEqualTo(MailOutbox.Status.DEAD);
+        assertThat(row.getCompletedAt()).isNotNull();
+    }
+
+    @Test
+    void temporarilyRefusedRecipientsAreRetried() throws Exception {
+        queue("greylisted@example.com");
+        SendFailedException greylisted = new SendFailedException("Invalid Addresses", new SMTPAddressFailedException(
+                new InternetAddress("greylisted@example.com"), "RCPT TO:<greylisted@example.com>", 451,
+                "451 4.7.1 Greylisted, try again later"));
+        when(emailService.sendHtmlEmail(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new MailSendException("Recipients temporarily refused", greylisted)));
+
+        mailQueue.dispatch();
+
+        MailOutbox row = rowsByRecipient().get("greylisted@example.com");
+        assertThat(row.getStatus()).isEqualTo(MailOutbox.Status.PENDING);
+        assertThat(row.getLastError()).contains("temporarily refused");
+    }
+
+    private void queue(String... recipients) {
+        for (String recipient : recipients) {
+            mailQueue.enqueue(MailQueue.idempotencyKey(recipient, List.of("guid")), recipient, "Digest", "<p>Hi</p>");
+        }
+    }
+
+    private Map<String, MailOutbox> rowsByRecipient() {
+        return outboxRepository.findAll().stream()
+                .collect(Collectors.toMap(MailOutbox::getRecipient, Function.identity()));
+    }
+}
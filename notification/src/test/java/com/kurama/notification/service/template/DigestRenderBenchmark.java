@@ -0,0 +1,113 @@
+package com.kurama.notification.service.template;
+
+import com.kurama.notification.entity.DigestEntry;
+import com.kurama.notification.service.digest.DigestKey;
+import com.kurama.notification.service.digest.DigestRenderer;
+import com.samskivert.mustache.Mustache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Render cost of one digest email. {@code compilePerMessage} is the cost without precompiled templates,
+ * {@code precompiled} renders every fragment, and {@code precompiledCached} is the steady state where the articles
+ * were already rendered for another recipient.
+ * <p>
+ * Runs in a forked JVM from {@link #main}, with the test classpath:
+ * <pre>
+ * mvn -pl notification test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp notification/target/test-classes:notification/target/classes:$(cat notification/target/test-classpath.txt) \
+ *     com.kurama.notification.service.template.DigestRenderBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DigestRenderBenchmark {
+
+    private static final DigestKey KEY = new DigestKey("reader@example.com", UUID.randomUUID());
+    private static final DateTimeFormatter PUBLISHED = DateTimeFormatter.ofPattern("d MMM yyyy, HH:mm 'UTC'")
+            .withZone(ZoneOffset.UTC);
+
+    @Param({"1", "20"})
+    public int articles;
+
+    private EmailTemplates templates;
+    private DigestRenderer cachedRenderer;
+    private List<DigestEntry> entries;
+    private String digestSource;
+    private String itemSource;
+
+    @Setup
+    public void setUp() throws IOException {
+        templates = new EmailTemplates("classpath:templates/email/");
+        cachedRenderer = new DigestRenderer(templates, new ArticleFragmentCache(templates, 10_000, Duration.ofHours(1)));
+        entries = IntStream.range(0, articles)
+                .mapToObj(i -> EmailTemplatesTests.entry("guid-" + i, "Article " + i))
+                .toList();
+        digestSource = new ClassPathResource("templates/email/digest.mustache").getContentAsString(StandardCharsets.UTF_8);
+        itemSource = new ClassPathResource("templates/email/article-item.mustache").getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String compilePerMessage() {
+        Mustache.Compiler compiler = Mustache.compiler().defaultValue("");
+        StringBuilder items = new StringBuilder();
+        for (DigestEntry entry : entries) {
+            // Same view as ArticleFragmentCache
+            Map<String, Object> view = new HashMap<>();
+            view.put("title", entry.getTitle() != null ? entry.getTitle() : entry.getArticleGuid());
+            view.put("link", entry.getLink());
+            view.put("published", entry.getPublishDate() != null ? PUBLISHED.format(entry.getPublishDate()) : null);
+            items.append(compiler.compile(itemSource).execute(view));
+        }
+        return compiler.compile(digestSource).execute(Map.of("subject", "digest", "items", items));
+    }
+
+    @Benchmark
+    public String precompiled() {
+        // A fresh cache per message: every fragment is rendered
+        return new DigestRenderer(templates, new ArticleFragmentCache(templates, 10_000, Duration.ofHours(1)))
+                .render(KEY, entries).htmlBody();
+    }
+
+    @Benchmark
+    public String precompiledCached() {
+        return cachedRenderer.render(KEY, entries).htmlBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DigestRenderBenchmark.class.getName())
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,77 @@
+package com.kurama.notification.service.template;
+
+import com.kurama.notification.entity.DigestEntry;
+import com.kurama.notification.service.digest.DigestKey;
+import com.kurama.notification.service.digest.DigestRenderer;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmailTemplatesTests {
+
+    private static final UUID FEED_ID = UUID.randomUUID();
+
+    private final EmailTemplates templates = new EmailTemplates("classpath:templates/email/");
+    private final ArticleFragmentCache fragments = new ArticleFragmentCache(templates, 100, Duration.ofHours(1));
+    private final DigestRenderer renderer = new DigestRenderer(templates, fragments);
+
+    @Test
+    void escapesValuesButNotPrerenderedItems() {
+        DigestEntry entry = entry("guid-1", "<script>alert(1)</script>");
+
+        String html = renderer.render(new DigestKey("reader@example.com", FEED_ID), List.of(entry, entry("guid-2", "Second")))
+                .htmlBody();
+
+        assertThat(html)
+                .contains("&lt;script&gt;alert(1)&lt;/script&gt;")
+                .doesNotContain("<script>")
+                .contains("<a href=\"http://example.com/guid-2\">Second</a>");
+    }
+
+    @Test
+    void rendersEachArticleOnceAcrossRecipients() {
+        List<DigestEntry> entries = List.of(entry("guid-1", "First"), entry("guid-2", "Second"));
+
+        String first = renderer.render(new DigestKey("a@example.com", FEED_ID), entries).htmlBody();
+        String second = renderer.render(new DigestKey("b@example.com", FEED_ID), entries).htmlBody();
+
+        assertThat(second).isEqualTo(first);
+        assertThat(fragments.stats().missCount()).isEqualTo(2);
+        assertThat(fragments.stats().hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void namesAnUntitledArticleByItsGuid() {
+        DigestRenderer.RenderedDigest digest = renderer.render(new DigestKey("reader@example.com", FEED_ID),
+                List.of(entry("urn:article:7", null)));
+
+        assertThat(digest.subject()).isEqualTo("New article: urn:article:7");
+        assertThat(digest.htmlBody()).contains(">urn:article:7</a>");
+    }
+
+    @Test
+    void rendersByNameAndRejectsUnknownTemplates() {
+        assertThat(templates.render("welcome", Map.of("name", "Ann"))).contains("Hello Ann,");
+        assertThatThrownBy(() -> templates.render("missing", Map.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    static DigestEntry entry(String guid, String title) {
+        DigestEntry entry = new DigestEntry();
+        entry.setRecipient("reader@example.com");
+        entry.setFeedId(FEED_ID);
+        entry.setArticleGuid(guid);
+        entry.setTitle(title);
+        entry.setLink("http://example.com/" + guid);
+        entry.setPublishDate(Instant.parse("2025-10-07T10:00:00Z"));
+        entry.setCreatedAt(Instant.now());
+        return entry;
+    }
+}